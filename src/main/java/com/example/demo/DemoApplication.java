@@ -2,6 +2,7 @@ package com.example.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 // 這是一個複合註解（Composite Annotation）
 // 等同於 @Configuration + @EnableAutoConfiguration + @ComponentScan
@@ -11,6 +12,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 // - 自動掃描目前 package 與子 package 中的所有元件（@Component、@Service、@Repository、@Controller）
 
 @SpringBootApplication
+
+// 啟用 @Scheduled 排程（例如 StudentArchiveJob 定期封存畢業生）
+@EnableScheduling
 public class DemoApplication {
 
     // 主方法（main method），是 Java 程式的進入點
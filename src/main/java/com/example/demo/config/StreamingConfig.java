@@ -0,0 +1,54 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+
+// GET /students/created/stream 回傳 StreamingResponseBody，在 Spring MVC 中是非同步請求：
+// 輸出是在另一個執行緒池上執行的，而且受非同步請求的逾時限制
+// - 沒有設定逾時時使用 Tomcat 預設的 30 秒，長時間的匯出會在中途被切斷，所以要明確設定
+// - 匯出會長時間佔住執行緒，使用專用的執行緒池，不和共用的 applicationTaskExecutor 搶執行緒
+//
+// 目前只有這個端點使用非同步請求，所以直接設定成 Spring MVC 非同步請求的預設值
+// 執行緒池不註冊成 Bean，否則 Spring Boot 就不會再自動建立 applicationTaskExecutor
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    // 單次串流匯出最長可以執行多久（毫秒）
+    @Value("${student.stream.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    // 同時進行的串流匯出數量上限
+    @Value("${student.stream.threads:4}")
+    private int threads;
+
+    // 執行緒都在忙時最多排隊幾個匯出，超過就拒絕
+    @Value("${student.stream.queue-capacity:16}")
+    private int queueCapacity;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("student-stream-");
+        executor.initialize();
+
+        configurer.setDefaultTimeout(timeoutMs);
+        configurer.setTaskExecutor(executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
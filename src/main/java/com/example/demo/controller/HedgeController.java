@@ -0,0 +1,24 @@
+package com.example.demo.controller;
+
+import com.example.demo.dao.HedgedStudentReader;
+import com.example.demo.model.HedgeStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// 提供對沖讀取統計的查詢 API
+@RestController
+public class HedgeController {
+
+    @Autowired
+    private HedgedStudentReader hedgedStudentReader;
+
+    // GET /hedge
+    // 回傳對沖讀取送出了多少額外查詢、贏了幾次、取消了幾次
+    @GetMapping("/hedge")
+    public ResponseEntity<HedgeStats> stats() {
+        return ResponseEntity.status(HttpStatus.OK).body(hedgedStudentReader.stats());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.metrics.HotKeyTracker;
+import com.example.demo.model.HotKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 提供熱點 key 的查詢 API，用來找出造成大部分負載與鎖競爭的學生 id
+@RestController
+public class HotKeyController {
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    // GET /hotkeys?top=10
+    // 回傳各個滑動視窗內讀取與寫入次數最多的前 top 個學生 id 與每秒存取次數
+    @GetMapping("/hotkeys")
+    public ResponseEntity<Map<String, Map<String, List<HotKey>>>> hotKeys(
+            @RequestParam(defaultValue = "10") Integer top) {
+
+        if (top <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        Map<String, Map<String, List<HotKey>>> map = new LinkedHashMap<>();
+        map.put("reads", hotKeyTracker.topReads(top));
+        map.put("writes", hotKeyTracker.topWrites(top));
+
+        return ResponseEntity.status(HttpStatus.OK).body(map);
+    }
+}
@@ -1,11 +1,23 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.Student;
+import com.example.demo.model.StudentPage;
 import com.example.demo.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
 
 // 標記這個類別為 RESTful Web API 的控制器，所有方法預設會回傳 JSON 格式資料
 @RestController
@@ -19,6 +31,14 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    // from / to 日期使用的時區，必須與資料庫的時區（serverTimezone）一致
+    @Value("${student.time-zone:Asia/Taipei}")
+    private ZoneId zone;
+
+    // 串流輸出時用來把 Student 轉成 JSON
+    @Autowired
+    private ObjectMapper objectMapper;
+
 
     // 處理「建立資源」的請求
     // 對應 RESTful API 中的「Create」動作，使用 HTTP POST 動詞
@@ -117,4 +137,79 @@ public class StudentController {
         // 回傳 HTTP 200 OK，並將查詢結果放入 response body 中
         return ResponseEntity.status(HttpStatus.OK).body(student);
     }
-}
\ No newline at end of file
+
+    // 處理「依建立期間查詢」的請求
+    // GET /students/created?from=2024-01-01&to=2024-02-01&cursor=...&limit=100
+    // from 包含、to 不包含；回傳一頁資料與下一頁的 cursor
+    @GetMapping("/students/created")
+    public ResponseEntity<StudentPage> readByCreateDate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") Integer limit) {
+
+        if (limit <= 0 || limit > 1000) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        try {
+            StudentPage page = studentService.getByCreateDateRange(toDate(from), toDate(to), cursor, limit);
+            return ResponseEntity.status(HttpStatus.OK).body(page);
+        } catch (IllegalArgumentException e) {
+            // cursor 格式錯誤
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // 處理「依建立期間計算筆數」的請求
+    // GET /students/created/count?from=2024-01-01&to=2024-02-01
+    // 已結束的完整月份使用快取的每月筆數，其餘只查詢對應的分區；細節見 StudentMonthlyCounts
+    @GetMapping("/students/created/count")
+    public ResponseEntity<Map<String, Long>> countByCreateDate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        try {
+            long count = studentService.countByCreateDateRange(toDate(from), toDate(to));
+            return ResponseEntity.status(HttpStatus.OK).body(Collections.singletonMap("count", count));
+        } catch (IllegalArgumentException e) {
+            // 範圍超過 student.count.max-months 個月
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // 處理「依建立期間串流匯出」的請求
+    // GET /students/created/stream?from=2024-01-01&to=2024-02-01
+    // 以 NDJSON（每行一筆 JSON）一邊查詢一邊輸出，內部用游標分頁，不會一次把整段期間載入記憶體
+    // 輸出在專用的執行緒池上執行，逾時由 student.stream.timeout-ms 決定（見 StreamingConfig）
+    @GetMapping("/students/created/stream")
+    public ResponseEntity<StreamingResponseBody> streamByCreateDate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        Date start = toDate(from);
+        Date end = toDate(to);
+
+        StreamingResponseBody body = outputStream -> {
+            String cursor = null;
+            do {
+                StudentPage page = studentService.getByCreateDateRange(start, end, cursor, 1000);
+                for (Student student : page.getStudents()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(student));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // 把 LocalDate 轉成資料庫時區當天 00:00 的時間點
+    private Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(zone).toInstant());
+    }
+}
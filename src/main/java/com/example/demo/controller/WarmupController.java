@@ -0,0 +1,24 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.WarmupReport;
+import com.example.demo.warmup.WarmupRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// 提供啟動暖機報告的查詢 API
+@RestController
+public class WarmupController {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    // GET /warmup
+    // 回傳最近一次暖機各階段執行的次數與花費時間
+    @GetMapping("/warmup")
+    public ResponseEntity<WarmupReport> report() {
+        return ResponseEntity.status(HttpStatus.OK).body(warmupRunner.getReport());
+    }
+}
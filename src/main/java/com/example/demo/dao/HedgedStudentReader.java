@@ -0,0 +1,395 @@
+package com.example.demo.dao;
+
+import com.example.demo.mapper.StudentRowMapper;
+import com.example.demo.metrics.LatencyTracker;
+import com.example.demo.model.HedgeStats;
+import com.example.demo.model.Student;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 對沖讀取（hedged read）：用來壓低 getById 的長尾延遲
+//
+// 先送出第一次查詢，如果超過「最近延遲的某個百分位數」（例如 p95）還沒回來，
+// 就從連線池拿另一條連線再送一次，誰先回來就用誰，落後的那一個用 Statement.cancel 取消
+// 整個讀取有一個總期限，超過就取消所有查詢並拋出 QueryTimeoutException
+//
+// 因為只有比 p95 還慢的查詢才會多送一次，額外負載大約是 5%，實際數字可以從 /hedge 查看
+// 執行緒池或連線池已經飽和時不會對沖，避免在最忙的時候再加負載
+@Component
+public class HedgedStudentReader {
+
+    private static final String SQL = "SELECT id, name, score, graduate, create_date FROM student WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 是否啟用對沖讀取
+    @Value("${student.hedge.enabled:false}")
+    private boolean enabled;
+
+    // 等待多久才送出第二次查詢：最近延遲的第幾百分位數
+    @Value("${student.hedge.percentile:0.95}")
+    private double percentile;
+
+    // 等待時間的下限（毫秒），避免延遲極低時幾乎每次都多送一次
+    @Value("${student.hedge.min-delay-ms:2}")
+    private long minDelayMs;
+
+    // 整個讀取（包含第二次查詢）的總期限（毫秒）
+    @Value("${student.hedge.deadline-ms:1000}")
+    private long deadlineMs;
+
+    private final LatencyTracker latencyTracker = new LatencyTracker(1024, 64);
+
+    // 執行查詢的執行緒池
+    private final ThreadPoolExecutor executor;
+
+    // 專門用來取消落後查詢的執行緒，不和查詢搶同一個執行緒池
+    private final ThreadPoolExecutor cancelExecutor;
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong hedgesIssued = new AtomicLong();
+    private final AtomicLong hedgesSkipped = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong cancellations = new AtomicLong();
+    private final AtomicLong deadlineExceeded = new AtomicLong();
+
+    public HedgedStudentReader(@Value("${student.hedge.threads:16}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 4),
+                r -> {
+                    Thread t = new Thread(r, "student-hedge-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.cancelExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(256),
+                r -> {
+                    Thread t = new Thread(r, "student-hedge-cancel");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.cancelExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        cancelExecutor.shutdownNow();
+    }
+
+    // 在交易中不能對沖：另一條執行緒拿到的是別的連線，看不到這個交易還沒提交的資料
+    public boolean canHedge() {
+        return enabled && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    // 以對沖方式查詢一筆學生資料，回傳結果清單（查不到是空清單）
+    public List<Student> query(Integer id) {
+        reads.incrementAndGet();
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        BlockingQueue<Attempt> done = new ArrayBlockingQueue<>(2);
+        List<Attempt> attempts = new ArrayList<>(2);
+
+        // 執行緒池已經有工作在排隊，再交給它只會多等；直接在目前的執行緒查詢，不做對沖
+        if (!executor.getQueue().isEmpty()) {
+            return queryInline(id, deadline);
+        }
+
+        Attempt primary = new Attempt(id, deadline, done);
+        try {
+            executor.execute(primary);
+        } catch (RejectedExecutionException e) {
+            // 執行緒池滿了，直接在目前的執行緒查詢，不做對沖
+            return queryInline(id, deadline);
+        }
+        attempts.add(primary);
+
+        try {
+            // 先等第一次查詢到「百分位數延遲」為止
+            long delay = hedgeDelayNanos();
+            Attempt finished = done.poll(Math.min(delay, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+            // 第一次查詢太慢（或已經失敗），從另一條連線再送一次
+            // 但執行緒池或連線池已經飽和時，第二次查詢只會排在同一批查詢後面，反而加重負載，所以不送
+            if (finished == null || finished.error != null) {
+                if (saturated()) {
+                    hedgesSkipped.incrementAndGet();
+                } else {
+                    Attempt hedge = new Attempt(id, deadline, done);
+                    try {
+                        executor.execute(hedge);
+                        attempts.add(hedge);
+                        hedgesIssued.incrementAndGet();
+                    } catch (RejectedExecutionException e) {
+                        // 執行緒池滿了就只等第一次查詢
+                        hedgesSkipped.incrementAndGet();
+                    }
+                }
+            }
+
+            // 等待第一個成功的結果，直到所有查詢都失敗或超過總期限
+            int failed = 0;
+            RuntimeException lastError = null;
+            while (true) {
+                if (finished == null) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    finished = done.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (finished == null) {
+                        break;
+                    }
+                }
+
+                if (finished.error == null) {
+                    recordPrimaryLatency(primary, finished);
+                    if (finished != primary) {
+                        hedgeWins.incrementAndGet();
+                    }
+                    cancelOthers(attempts, finished);
+                    return finished.result;
+                }
+
+                lastError = finished.error;
+                failed++;
+                if (failed >= attempts.size()) {
+                    if (lastError instanceof QueryTimeoutException) {
+                        deadlineExceeded.incrementAndGet();
+                    }
+                    throw lastError;
+                }
+                finished = null;
+            }
+
+            // 超過總期限：取消所有還在執行的查詢
+            // 第一次查詢至少花了這麼久，當作下限記錄下來
+            latencyTracker.record(System.nanoTime() - primary.submittedNanos);
+            cancelOthers(attempts, null);
+            deadlineExceeded.incrementAndGet();
+            throw new QueryTimeoutException("getById(" + id + ") exceeded hedged read deadline of " + deadlineMs + " ms");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelOthers(attempts, null);
+            throw new RecoverableDataAccessException("getById(" + id + ") interrupted", e);
+        }
+    }
+
+    // 系統忙碌、不做對沖時，直接在呼叫端的執行緒查詢
+    // 一樣透過 statementCreator() 設定資料庫端的逾時，總期限在最忙的時候也要有效
+    private List<Student> queryInline(Integer id, long deadline) {
+        hedgesSkipped.incrementAndGet();
+        try {
+            return jdbcTemplate.query(statementCreator(id, deadline, null), new StudentRowMapper());
+        } catch (DataAccessException e) {
+            // 逾時被資料庫中止的查詢，不論被轉換成哪一種例外，都以 QueryTimeoutException 回報
+            if (e instanceof QueryTimeoutException || System.nanoTime() - deadline >= 0) {
+                deadlineExceeded.incrementAndGet();
+                throw new QueryTimeoutException("getById(" + id + ") exceeded hedged read deadline of " + deadlineMs + " ms", e);
+            }
+            throw e;
+        }
+    }
+
+    // 建立查詢的 PreparedStatement，並依剩下的總期限設定資料庫端的逾時
+    // attempt 不是 null 時，把 Statement 交給它保管，讓落後的查詢可以被取消
+    private PreparedStatementCreator statementCreator(Integer id, long deadline, Attempt attempt) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(SQL);
+            ps.setInt(1, id);
+
+            // setQueryTimeout 的單位是秒，無條件進位，最少 1 秒
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            ps.setQueryTimeout((int) Math.max(1, (remainingMs + 999) / 1000));
+
+            if (attempt != null) {
+                attempt.register(ps);
+            }
+            return ps;
+        };
+    }
+
+    public HedgeStats stats() {
+        HedgeStats stats = new HedgeStats();
+        long readCount = reads.get();
+        long hedgeCount = hedgesIssued.get();
+
+        stats.setReads(readCount);
+        stats.setHedgesIssued(hedgeCount);
+        stats.setHedgesSkipped(hedgesSkipped.get());
+        stats.setHedgeWins(hedgeWins.get());
+        stats.setCancellations(cancellations.get());
+        stats.setDeadlineExceeded(deadlineExceeded.get());
+        stats.setExtraLoadRatio(readCount == 0 ? 0 : (double) hedgeCount / readCount);
+        stats.setHedgeDelayMillis(hedgeDelayNanos() / 1_000_000.0);
+        return stats;
+    }
+
+    // 送出第二次查詢前要等多久：最近延遲的百分位數，但不低於 minDelayMs
+    // 還沒有任何樣本時就等到總期限的一半
+    private long hedgeDelayNanos() {
+        long observed = latencyTracker.percentile(percentile);
+        if (observed < 0) {
+            return TimeUnit.MILLISECONDS.toNanos(deadlineMs) / 2;
+        }
+        return Math.max(observed, TimeUnit.MILLISECONDS.toNanos(minDelayMs));
+    }
+
+    // 延遲樣本一律記錄「第一次查詢」花的時間，百分位數才代表單次查詢的真實分布
+    // 如果只記錄贏家，第二次查詢贏的時候會記到比較短的時間，p95 會越算越低，對沖比例就會超過預期
+    // 第一次查詢還沒結束時，記錄到目前為止經過的時間（真實延遲的下限）
+    private void recordPrimaryLatency(Attempt primary, Attempt winner) {
+        if (winner == primary) {
+            latencyTracker.record(primary.elapsedNanos);
+        } else if (primary.error == null) {
+            latencyTracker.record(System.nanoTime() - primary.submittedNanos);
+        }
+    }
+
+    // 執行緒池或連線池是否已經飽和
+    // - 執行緒池有工作在排隊，或所有執行緒都在忙
+    // - 連線池有執行緒在等連線，或連線已經全部借出且不能再增加
+    private boolean saturated() {
+        if (!executor.getQueue().isEmpty() || executor.getActiveCount() >= executor.getMaximumPoolSize()) {
+            return true;
+        }
+
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        if (dataSource instanceof HikariDataSource) {
+            HikariDataSource hikari = (HikariDataSource) dataSource;
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                return pool.getThreadsAwaitingConnection() > 0
+                        || (pool.getIdleConnections() == 0
+                            && pool.getTotalConnections() >= hikari.getMaximumPoolSize());
+            }
+        }
+        return false;
+    }
+
+    // 取消 winner 以外還在執行的查詢
+    // MySQL 驅動的 Statement.cancel 會另外開連線送出 KILL QUERY，比較慢，
+    // 所以交給專用的取消執行緒做，不要拖慢已經拿到結果的呼叫端，也不要排在查詢後面
+    private void cancelOthers(List<Attempt> attempts, Attempt winner) {
+        for (Attempt attempt : attempts) {
+            if (attempt == winner || !attempt.markCancelled()) {
+                continue;
+            }
+            cancellations.incrementAndGet();
+
+            Statement statement = attempt.statement();
+            if (statement == null) {
+                continue;
+            }
+            try {
+                cancelExecutor.execute(() -> cancelQuietly(statement));
+            } catch (RejectedExecutionException e) {
+                // 取消佇列滿了就不取消，查詢仍然會被 setQueryTimeout 設定的逾時中止
+            }
+        }
+    }
+
+    private void cancelQuietly(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException ignored) {
+            // 查詢可能剛好結束，取消失敗不影響結果
+        }
+    }
+
+    // 一次查詢嘗試，會在 executor 的執行緒上執行，完成後把自己放進 done 佇列
+    private class Attempt implements Runnable {
+
+        private final Integer id;
+        private final long deadline;
+        private final BlockingQueue<Attempt> done;
+
+        // 交給執行緒池的時間，延遲從這裡開始算（包含在執行緒池排隊的時間）
+        private final long submittedNanos = System.nanoTime();
+
+        // 正在執行的 Statement，用來取消查詢；執行結束後設回 null
+        private Statement statement;
+        private boolean cancelled;
+        private boolean finished;
+
+        private volatile List<Student> result;
+        private volatile RuntimeException error;
+        private volatile long elapsedNanos;
+
+        Attempt(Integer id, long deadline, BlockingQueue<Attempt> done) {
+            this.id = id;
+            this.deadline = deadline;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                // 資料庫端也設定逾時，避免被取消失敗的查詢一直佔著連線
+                result = jdbcTemplate.query(statementCreator(id, deadline, this), new StudentRowMapper());
+            } catch (RuntimeException e) {
+                error = e;
+            } finally {
+                elapsedNanos = System.nanoTime() - submittedNanos;
+                synchronized (this) {
+                    statement = null;
+                    finished = true;
+                }
+            }
+            done.offer(this);
+        }
+
+        private synchronized void register(PreparedStatement ps) throws SQLException {
+            if (cancelled) {
+                ps.close();
+                throw new SQLException("hedged attempt cancelled before execution");
+            }
+            statement = ps;
+        }
+
+        // 標記為已取消，回傳這次是否真的取消到還沒結束的查詢
+        // 之後才建立的 Statement 會在 register 時直接被拒絕
+        synchronized boolean markCancelled() {
+            if (finished || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        synchronized Statement statement() {
+            return statement;
+        }
+    }
+}
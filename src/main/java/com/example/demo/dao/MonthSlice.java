@@ -0,0 +1,79 @@
+package com.example.demo.dao;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// 把一段時間 [from, to) 依月份切開，每一段都落在同一個月份（也就是同一個 student 分區）內
+// 例如 1/15 ~ 3/10 會切成：1/15 ~ 2/1（部分）、2/1 ~ 3/1（整個月）、3/1 ~ 3/10（部分）
+//
+// 月份的邊界一律用指定的時區計算，必須和資料庫的時區（serverTimezone）一致，
+// 否則月份邊界會和 create_date 的月份、分區的範圍對不上
+public class MonthSlice {
+
+    private final YearMonth month;
+
+    private final Date start;
+
+    private final Date end;
+
+    private final boolean fullMonth;
+
+    public MonthSlice(YearMonth month, Date start, Date end, boolean fullMonth) {
+        this.month = month;
+        this.start = start;
+        this.end = end;
+        this.fullMonth = fullMonth;
+    }
+
+    public static List<MonthSlice> split(Date from, Date to, ZoneId zone) {
+        List<MonthSlice> slices = new ArrayList<>();
+        if (!from.before(to)) {
+            return slices;
+        }
+
+        YearMonth first = toMonth(from, zone);
+        YearMonth last = toMonth(new Date(to.getTime() - 1), zone);
+
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            Date monthStart = startOf(month, zone);
+            Date monthEnd = startOf(month.plusMonths(1), zone);
+
+            Date start = from.after(monthStart) ? from : monthStart;
+            Date end = to.before(monthEnd) ? to : monthEnd;
+
+            slices.add(new MonthSlice(month, start, end,
+                    start.equals(monthStart) && end.equals(monthEnd)));
+        }
+        return slices;
+    }
+
+    // 某個時間點在指定時區下屬於哪個月份
+    public static YearMonth toMonth(Date date, ZoneId zone) {
+        return YearMonth.from(date.toInstant().atZone(zone));
+    }
+
+    // 某個月份在指定時區下的第一天 00:00
+    public static Date startOf(YearMonth month, ZoneId zone) {
+        return Date.from(month.atDay(1).atStartOfDay(zone).toInstant());
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public Date getStart() {
+        return start;
+    }
+
+    public Date getEnd() {
+        return end;
+    }
+
+    // 這一段是否涵蓋整個月份
+    public boolean isFullMonth() {
+        return fullMonth;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dao;
+
+import com.example.demo.model.Student;
+
+import java.util.Date;
+
+// 畢業生封存表（student_archive）的資料存取介面
+// 把很少被讀取的舊畢業生搬離 student，讓主表與索引維持在小的工作集
+public interface StudentArchiveDao {
+
+    // 把一批 graduate = true 且 create_date 早於 cutoff 的學生從 student 搬到 student_archive
+    // 搬移與刪除在同一個交易內完成，回傳實際搬移的筆數（0 代表已經沒有可搬的資料）
+    int archiveBatch(Date cutoff, int batchSize);
+
+    // 根據主鍵 ID 從封存表查詢一筆學生資料，查不到回傳 null
+    Student getById(Integer id);
+
+    // 更新封存表中的學生資料，回傳影響的筆數
+    int update(Student student);
+
+    // 從封存表刪除學生資料
+    void deleteById(Integer id);
+}
@@ -0,0 +1,169 @@
+package com.example.demo.dao;
+
+import com.example.demo.mapper.StudentRowMapper;
+import com.example.demo.model.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class StudentArchiveDaoImpl implements StudentArchiveDao {
+
+    // 封存表還沒建立時，隔多久再檢查一次
+    private static final long TABLE_RECHECK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private StudentMonthlyCounts studentMonthlyCounts;
+
+    // student_archive 是由 db/student-archive.sql 手動建立的，還沒建立前 StudentDaoImpl 查不到資料時
+    // 也會呼叫這裡，不能讓每次查無資料都變成 SQL 錯誤；確認存在之後就不再檢查
+    private volatile boolean tableExists;
+
+    private volatile long tableCheckedAt;
+
+    // 一整批在同一個交易內完成：挑出候選 -> 依主鍵鎖住 -> 複製到封存表 -> 從主表刪除
+    // 交易提交前，其他連線讀 student 仍然看得到舊資料；提交後就只會在 student_archive 找到，
+    // 所以 StudentDaoImpl.getById 先查 student 再查 student_archive 不會漏掉資料
+    @Transactional
+    @Override
+    public int archiveBatch(Date cutoff, int batchSize) {
+
+        if (!tableExists()) {
+            throw new IllegalStateException("student_archive does not exist, run db/student-archive.sql first");
+        }
+
+        // 第一步用一般的（不加鎖）查詢挑出候選 id
+        // (graduate, create_date) 沒有索引，這個查詢會沿著主鍵掃描；
+        // 如果直接用 FOR UPDATE，InnoDB 在 REPEATABLE READ 下會把「掃過的每一列」都鎖到交易結束，
+        // 連還沒畢業、正被頻繁 UPDATE 的熱點資料也會被擋住
+        String candidateSql = "SELECT id FROM student WHERE graduate = true AND create_date < :cutoff ORDER BY id LIMIT :limit";
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("cutoff", cutoff);
+        map.put("limit", batchSize);
+
+        List<Integer> candidates = namedParameterJdbcTemplate.queryForList(candidateSql, map, Integer.class);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        // 第二步只依主鍵鎖住這些候選資料，並在鎖住後重新確認條件（期間可能被改成未畢業）
+        String lockSql = "SELECT id, create_date FROM student " +
+                "WHERE id IN (:ids) AND graduate = true AND create_date < :cutoff FOR UPDATE";
+
+        Map<String, Object> lockMap = new HashMap<>();
+        lockMap.put("ids", candidates);
+        lockMap.put("cutoff", cutoff);
+
+        List<Integer> ids = new ArrayList<>();
+        List<Date> createDates = new ArrayList<>();
+        namedParameterJdbcTemplate.query(lockSql, lockMap, (RowCallbackHandler) resultSet -> {
+            ids.add(resultSet.getInt("id"));
+            createDates.add(resultSet.getTimestamp("create_date"));
+        });
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Object> idMap = new HashMap<>();
+        idMap.put("ids", ids);
+
+        String insertSql = "INSERT INTO student_archive(id, name, score, graduate, create_date) " +
+                "SELECT id, name, score, graduate, create_date FROM student WHERE id IN (:ids)";
+        namedParameterJdbcTemplate.update(insertSql, idMap);
+
+        String deleteSql = "DELETE FROM student WHERE id IN (:ids)";
+        int count = namedParameterJdbcTemplate.update(deleteSql, idMap);
+
+        // 搬走的資料不再算在 student 的筆數裡，讓這些月份的快取失效（交易提交後才生效）
+        for (Date createDate : createDates) {
+            studentMonthlyCounts.invalidate(createDate);
+        }
+        return count;
+    }
+
+    @Override
+    public Student getById(Integer id) {
+
+        if (!tableExists()) {
+            return null;
+        }
+
+        String sql = "SELECT id, name, score, graduate, create_date FROM student_archive WHERE id = :id";
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", id);
+
+        List<Student> list = namedParameterJdbcTemplate.query(sql, map, new StudentRowMapper());
+
+        if (list.size() > 0) {
+            return list.get(0);
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public int update(Student student) {
+
+        if (!tableExists()) {
+            return 0;
+        }
+
+        String sql = "UPDATE student_archive SET name = :name, score = :score, graduate = :graduate WHERE id = :id";
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", student.getId());
+        map.put("name", student.getName());
+        map.put("score", student.getScore());
+        map.put("graduate", student.isGraduate());
+
+        return namedParameterJdbcTemplate.update(sql, map);
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+
+        if (!tableExists()) {
+            return;
+        }
+
+        String sql = "DELETE FROM student_archive WHERE id = :id";
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", id);
+
+        namedParameterJdbcTemplate.update(sql, map);
+    }
+
+    private boolean tableExists() {
+        if (tableExists) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        if (tableCheckedAt != 0 && now - tableCheckedAt < TABLE_RECHECK_MILLIS) {
+            return false;
+        }
+
+        String sql = "SELECT COUNT(*) FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'student_archive'";
+        Integer count = namedParameterJdbcTemplate.queryForObject(sql, new HashMap<>(), Integer.class);
+
+        tableExists = count != null && count > 0;
+        tableCheckedAt = now;
+        return tableExists;
+    }
+}
@@ -2,6 +2,9 @@ package com.example.demo.dao;
 
 import com.example.demo.model.Student;
 
+import java.util.Date;
+import java.util.List;
+
 // 這是一個資料存取層（DAO, Data Access Object）的介面
 // DAO 負責與資料庫進行 CRUD 操作（建立、查詢、更新、刪除）
 // 使用介面可以讓實作方式（JDBC、JPA、MyBatis 等）與邏輯層（Service）分離，實現鬆耦合與易於測試
@@ -22,4 +25,14 @@ public interface StudentDao {
     // 根據主鍵 ID 查詢一筆學生資料，並將結果映射成 Student 物件
     // 對應 SQL: SELECT * FROM student WHERE id=?
     Student getById(Integer id);
+
+    // 查詢 create_date 在 [from, to) 之間的學生，依 (create_date, id) 排序，最多 limit 筆
+    // afterCreateDate / afterId 是上一頁最後一筆的位置（游標），第一頁傳 null
+    // 條件直接落在 create_date 上，分區表會只掃描相關月份的分區
+    // 對應 SQL: SELECT * FROM student WHERE create_date >= ? AND create_date < ? AND (create_date, id) > (?, ?) ORDER BY create_date, id LIMIT ?
+    List<Student> getByCreateDateRange(Date from, Date to, Date afterCreateDate, Integer afterId, int limit);
+
+    // 計算 create_date 在 [from, to) 之間的學生筆數
+    // 完整涵蓋的月份使用記憶體中的每月筆數，只有頭尾不完整的月份才查詢資料庫
+    long countByCreateDateRange(Date from, Date to);
 }
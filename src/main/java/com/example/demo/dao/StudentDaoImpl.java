@@ -26,6 +26,18 @@ public class StudentDaoImpl implements StudentDao {
     @Autowired
     private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    // 畢業生封存表，主表查不到時會再到這裡找
+    @Autowired
+    private StudentArchiveDao studentArchiveDao;
+
+    // 對沖讀取：getById 太慢時從另一條連線再查一次，降低長尾延遲
+    @Autowired
+    private HedgedStudentReader hedgedStudentReader;
+
+    // 依月份計算筆數（已結束的月份有快取）
+    @Autowired
+    private StudentMonthlyCounts studentMonthlyCounts;
+
     // 實作 DAO 中 insert 方法，負責將一筆學生資料寫入資料庫中
     @Override
     public Integer insert(Student student) {
@@ -130,7 +142,24 @@ public class StudentDaoImpl implements StudentDao {
                                   new MapSqlParameterSource(paramMap));
         }
         */
-        namedParameterJdbcTemplate.update(sql, map);
+        int count = 0;
+
+        // student 按月分區後主鍵是 (id, create_date)，只用 id 查詢時每個分區都要找一次；
+        // 已經知道 create_date（例如先 getById 再 update）就帶上去，只需要找一個分區
+        if (student.getCreateDate() != null) {
+            map.put("createDate", student.getCreateDate());
+            count = namedParameterJdbcTemplate.update(sql + " AND create_date = :createDate", map);
+        }
+
+        // 沒有帶 create_date，或 create_date 對不上，改用 id 更新
+        if (count == 0) {
+            count = namedParameterJdbcTemplate.update(sql, map);
+        }
+
+        // 主表沒有這筆資料，可能已經被搬到封存表，改更新封存表
+        if (count == 0) {
+            studentArchiveDao.update(student);
+        }
     }
 
     // 實作 DAO 中 deleteById 方法，根據主鍵刪除資料
@@ -145,7 +174,12 @@ public class StudentDaoImpl implements StudentDao {
         map.put("id", id);   // 要刪除的學生 id
 
         // 執行 DELETE 操作
-        namedParameterJdbcTemplate.update(sql, map);
+        int count = namedParameterJdbcTemplate.update(sql, map);
+
+        // 主表沒有這筆資料，可能已經被封存，也要從封存表刪除，否則 getById 還會查得到
+        if (count == 0) {
+            studentArchiveDao.deleteById(id);
+        }
     }
 
     // 實作 DAO 中 getById 方法，根據主鍵查詢一筆學生資料
@@ -174,9 +208,15 @@ public class StudentDaoImpl implements StudentDao {
            是你我自己定義的 class，
            並且實作了 Spring JDBC 的 RowMapper<Student> 介面
          */
-         List<Student> list = namedParameterJdbcTemplate.query(sql,
-                                                                map,
-                                                                new StudentRowMapper());
+         List<Student> list;
+         if (hedgedStudentReader.canHedge()) {
+             // 啟用對沖讀取時，交給 HedgedStudentReader 處理（有總期限與取消機制）
+             list = hedgedStudentReader.query(id);
+         } else {
+             list = namedParameterJdbcTemplate.query(sql,
+                                                     map,
+                                                     new StudentRowMapper());
+         }
 
 
 
@@ -184,8 +224,41 @@ public class StudentDaoImpl implements StudentDao {
         if (list.size() > 0) {
             return list.get(0);
         } else {
-            // 如果查不到，回傳 null
-            return null;
+            // 主表查不到，再到封存表找（已畢業很久的學生會被 StudentArchiveJob 搬過去）
+            // 封存表也查不到時會回傳 null
+            return studentArchiveDao.getById(id);
         }
     }
+
+    // 實作 DAO 中 getByCreateDateRange 方法，依建立時間範圍分頁查詢
+    @Override
+    public List<Student> getByCreateDateRange(Date from, Date to, Date afterCreateDate, Integer afterId, int limit) {
+
+        // 使用 (create_date, id) 當游標（keyset 分頁），不用 OFFSET，
+        // 不論翻到第幾頁都只需要從索引上接續往下讀 limit 筆
+        String sql = "SELECT id, name, score, graduate, create_date FROM student " +
+                "WHERE create_date >= :from AND create_date < :to";
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("from", from);
+        map.put("to", to);
+        map.put("limit", limit);
+
+        if (afterCreateDate != null && afterId != null) {
+            sql = sql + " AND (create_date > :afterCreateDate OR (create_date = :afterCreateDate AND id > :afterId))";
+            map.put("afterCreateDate", afterCreateDate);
+            map.put("afterId", afterId);
+        }
+
+        sql = sql + " ORDER BY create_date, id LIMIT :limit";
+
+        return namedParameterJdbcTemplate.query(sql, map, new StudentRowMapper());
+    }
+
+    // 實作 DAO 中 countByCreateDateRange 方法，計算建立時間範圍內的筆數
+    // 已結束的整月使用快取，其餘月份只查詢對應的分區，細節見 StudentMonthlyCounts
+    @Override
+    public long countByCreateDateRange(Date from, Date to) {
+        return studentMonthlyCounts.count(from, to);
+    }
 }
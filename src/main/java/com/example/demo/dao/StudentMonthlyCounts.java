@@ -0,0 +1,174 @@
+package com.example.demo.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 依 create_date 月份（也就是 student 的分區）計算筆數
+//
+// 只有「已經結束的月份」會快取在記憶體中：
+// - 新增資料的 create_date 一定是現在，已經結束的月份不會再有新增，多台機器之間也不會各自少算別台的新增
+// - 已結束的月份只會因為刪除或封存而變少，所以快取有 TTL，過期後只重新計算那一個月份（只掃描一個分區）
+// 這個月還會持續寫入，直接查詢資料庫（同樣只掃描對應的分區）
+//
+// 查詢的範圍會先收斂，不論 from / to 給多大，查詢次數只和「實際有資料的月份數」有關：
+// - 下個月以後（包含預先建立的未來分區）合成一次範圍查詢，不逐月查詢
+// - 最早一筆資料所在月份之前一定是 0，直接略過，所以快取的月份數也不會超過資料實際涵蓋的月份
+// 請求本身超過 max-months 個月則直接拒絕
+@Component
+public class StudentMonthlyCounts {
+
+    // 月份結束後再等多久才視為「已結束」，避免月底最後一刻才提交的新增資料被漏掉
+    private static final long CLOSE_GRACE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    // 計算月份用的時區，必須與 spring.datasource.url 的 serverTimezone 一致
+    @Value("${student.time-zone:Asia/Taipei}")
+    private ZoneId zone;
+
+    // 已結束月份的快取要保留多久（毫秒）
+    @Value("${student.count.closed-month-ttl-ms:3600000}")
+    private long closedMonthTtlMs;
+
+    // 一次最多可以查詢幾個月的範圍
+    @Value("${student.count.max-months:120}")
+    private int maxMonths;
+
+    private final Map<YearMonth, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    // 計算 create_date 在 [from, to) 之間的筆數
+    // 範圍超過 max-months 個月時拋出 IllegalArgumentException
+    public long count(Date from, Date to) {
+        if (!from.before(to)) {
+            return 0;
+        }
+
+        YearMonth firstMonth = MonthSlice.toMonth(from, zone);
+        YearMonth lastMonth = MonthSlice.toMonth(new Date(to.getTime() - 1), zone);
+        if (ChronoUnit.MONTHS.between(firstMonth, lastMonth) + 1 > maxMonths) {
+            throw new IllegalArgumentException("count range covers more than " + maxMonths + " months");
+        }
+
+        long now = System.currentTimeMillis();
+        long total = 0;
+
+        // 下個月以後：一次範圍查詢
+        Date end = to;
+        Date nextMonth = MonthSlice.startOf(YearMonth.now(zone).plusMonths(1), zone);
+        if (end.after(nextMonth)) {
+            total += query(from.after(nextMonth) ? from : nextMonth, end);
+            end = nextMonth;
+        }
+        if (!from.before(end)) {
+            return total;
+        }
+
+        // 從最早有資料的月份開始切，更早的月份不需要查詢也不會進快取
+        Date earliest = earliest(from, end);
+        if (earliest == null) {
+            return total;
+        }
+        Date earliestMonth = MonthSlice.startOf(MonthSlice.toMonth(earliest, zone), zone);
+        Date start = from.after(earliestMonth) ? from : earliestMonth;
+
+        for (MonthSlice slice : MonthSlice.split(start, end, zone)) {
+            if (slice.isFullMonth() && isClosed(slice.getMonth(), now)) {
+                total += closedMonthCount(slice, now);
+            } else {
+                // 部分月份（範圍的頭尾），或還會寫入的月份：直接查詢，只會掃描這個月份的分區
+                total += query(slice.getStart(), slice.getEnd());
+            }
+        }
+        return total;
+    }
+
+    // createDate 所在月份的資料有變動（例如被封存），讓這個月份的快取失效
+    // 如果目前在交易中，等交易提交之後才失效
+    public void invalidate(Date createDate) {
+        YearMonth month = MonthSlice.toMonth(createDate, zone);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(month);
+                }
+            });
+        } else {
+            cache.remove(month);
+        }
+    }
+
+    private boolean isClosed(YearMonth month, long now) {
+        return MonthSlice.startOf(month.plusMonths(1), zone).getTime() + CLOSE_GRACE_MILLIS <= now;
+    }
+
+    private long closedMonthCount(MonthSlice slice, long now) {
+
+        // 交易中查到的數字可能包含還沒提交（之後可能回滾）的資料，不能放進快取
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query(slice.getStart(), slice.getEnd());
+        }
+
+        CachedCount cached = cache.get(slice.getMonth());
+        if (cached != null && now - cached.loadedAt < closedMonthTtlMs) {
+            return cached.count;
+        }
+
+        long count = query(slice.getStart(), slice.getEnd());
+        cache.put(slice.getMonth(), new CachedCount(count, now));
+        return count;
+    }
+
+    // [from, to) 之間最早的 create_date，沒有資料時回傳 null
+    // 有 idx_student_create_date（db/student-partition.sql）時只需要讀索引的第一筆
+    private Date earliest(Date from, Date to) {
+        String sql = "SELECT MIN(create_date) FROM student WHERE create_date >= :from AND create_date < :to";
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("from", from);
+        map.put("to", to);
+
+        return namedParameterJdbcTemplate.queryForObject(sql, map, Date.class);
+    }
+
+    private long query(Date start, Date end) {
+        String sql = "SELECT COUNT(*) FROM student WHERE create_date >= :from AND create_date < :to";
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("from", start);
+        map.put("to", end);
+
+        Long count = namedParameterJdbcTemplate.queryForObject(sql, map, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static class CachedCount {
+
+        private final long count;
+
+        private final long loadedAt;
+
+        CachedCount(long count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
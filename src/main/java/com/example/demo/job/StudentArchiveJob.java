@@ -0,0 +1,81 @@
+package com.example.demo.job;
+
+import com.example.demo.dao.StudentArchiveDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// 冷熱分層排程：定期把畢業很久的學生從 student 搬到 student_archive
+// 每批搬移之間會暫停一下，避免長時間佔用鎖或拖慢線上查詢
+@Component
+public class StudentArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentArchiveJob.class);
+
+    @Autowired
+    private StudentArchiveDao studentArchiveDao;
+
+    // 是否啟用（預設關閉，需要在 application.properties 打開）
+    @Value("${student.archive.enabled:false}")
+    private boolean enabled;
+
+    // create_date 超過幾天的畢業生才會被封存
+    @Value("${student.archive.min-age-days:365}")
+    private int minAgeDays;
+
+    // 每一批（一個交易）搬幾筆
+    @Value("${student.archive.batch-size:500}")
+    private int batchSize;
+
+    // 每批之間暫停多久（毫秒）
+    @Value("${student.archive.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    // 每次排程最多搬幾批，剩下的留到下一次
+    @Value("${student.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(initialDelayString = "${student.archive.interval-ms:3600000}",
+               fixedDelayString = "${student.archive.interval-ms:3600000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+
+        // 截止時間在這一輪開始時就固定下來，整輪使用同一個標準
+        Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(minAgeDays));
+
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved;
+            try {
+                moved = studentArchiveDao.archiveBatch(cutoff, batchSize);
+            } catch (RuntimeException e) {
+                // 失敗的那一批已經回滾，之前的批次已經提交，留到下一輪再繼續
+                log.error("封存畢業生失敗，本輪已封存 {} 筆", total, e);
+                return;
+            }
+            total += moved;
+
+            // 這批不滿，代表已經沒有資料可以搬了（或有候選資料在鎖住前被改掉，留到下一輪再處理）
+            if (moved < batchSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(batchPauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        log.info("封存畢業生筆數: {}", total);
+    }
+}
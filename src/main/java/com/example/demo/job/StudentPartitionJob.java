@@ -0,0 +1,104 @@
+package com.example.demo.job;
+
+import com.example.demo.dao.MonthSlice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+
+// student 按月分區的維護排程
+// - 確保從最早的資料月份起，一直到往後 months-ahead 個月，每個月都有自己的分區（從 p_future 拆出來）
+//
+// 分區本身要先用 db/student-partition.sql 手動建立，這裡負責切出月份分區並往後延伸
+@Component
+public class StudentPartitionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentPartitionJob.class);
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 分區邊界是資料庫的時間，判斷「這個月」要用同一個時區
+    @Value("${student.time-zone:Asia/Taipei}")
+    private ZoneId zone;
+
+    // 是否維護分區（student 尚未分區時請保持關閉）
+    @Value("${student.partition.enabled:false}")
+    private boolean enabled;
+
+    // 要預先建立未來幾個月的分區
+    @Value("${student.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Scheduled(initialDelayString = "${student.partition.initial-delay-ms:60000}",
+               fixedDelayString = "${student.partition.interval-ms:86400000}")
+    public void run() {
+        if (enabled) {
+            addFuturePartitions();
+        }
+    }
+
+    private void addFuturePartitions() {
+        String sql = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'student' AND PARTITION_NAME IS NOT NULL";
+        List<String> partitions = jdbcTemplate.queryForList(sql, String.class);
+
+        if (!partitions.contains("p_future")) {
+            log.warn("student 尚未分區（找不到 p_future），請先執行 db/student-partition.sql");
+            return;
+        }
+
+        // 目前最新的月份分區，新的分區只能接在它後面
+        YearMonth latest = null;
+        for (String name : partitions) {
+            if (name.matches("p\\d{6}")) {
+                YearMonth month = YearMonth.parse(name, PARTITION_NAME);
+                if (latest == null || month.isAfter(latest)) {
+                    latest = month;
+                }
+            }
+        }
+
+        YearMonth first;
+        if (latest != null) {
+            first = latest.plusMonths(1);
+        } else {
+            // 還沒有任何月份分區（剛執行完 db/student-partition.sql）：
+            // 從 p_future 裡最早的資料所在月份開始切，歷史資料也要落在各自的月份分區，範圍查詢才能裁剪
+            Date min = jdbcTemplate.queryForObject(
+                    "SELECT MIN(create_date) FROM student PARTITION (p_future)", Date.class);
+            first = min == null ? YearMonth.now(zone) : MonthSlice.toMonth(min, zone);
+        }
+
+        YearMonth last = YearMonth.now(zone).plusMonths(monthsAhead);
+        if (first.isAfter(last)) {
+            return;
+        }
+
+        // 一次 REORGANIZE 就把 p_future（MAXVALUE）拆成所有缺少的月份與新的 p_future，
+        // p_future 裡的資料只會被重寫一次
+        // 第一次拆分時 p_future 含有全部的歷史資料，等於重寫整張表，請在離峰時段啟用；
+        // 之後每次只會拆出還沒有資料的未來月份，幾乎不需要搬動資料
+        StringBuilder ddl = new StringBuilder("ALTER TABLE student REORGANIZE PARTITION p_future INTO (");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            ddl.append("PARTITION ").append(month.format(PARTITION_NAME))
+               .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+        }
+        ddl.append("PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+        log.info("執行 student 分區 DDL: {}", ddl);
+        jdbcTemplate.execute(ddl.toString());
+
+        log.info("新增 student 分區: {} ~ {}", first.format(PARTITION_NAME), last.format(PARTITION_NAME));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.metrics;
+
+import com.example.demo.model.HotKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 追蹤最常被讀取、最常被更新的學生 id
+// 由 StudentServiceImpl 在每次呼叫時餵資料進來，不需要打開 MySQL 的 query log
+@Component
+public class HotKeyTracker {
+
+    // 要回報的視窗大小（秒），例如 60,300,900 代表最近 1、5、15 分鐘
+    private final long[] windowSeconds;
+
+    // 讀取（getById）的熱點
+    private final HotKeyWindow reads;
+
+    // 寫入（update、deleteById）的熱點
+    private final HotKeyWindow writes;
+
+    // 目前執行緒的存取是否不列入統計（例如 WarmupRequestFilter 標記的暖機請求）
+    private final ThreadLocal<Boolean> ignored = ThreadLocal.withInitial(() -> false);
+
+    public HotKeyTracker(@Value("${hotkey.capacity:64}") int capacity,
+                         @Value("${hotkey.bucket-seconds:10}") long bucketSeconds,
+                         @Value("${hotkey.window-seconds:60,300,900}") long[] windowSeconds,
+                         @Value("${hotkey.stripes:8}") int stripes) {
+        this.windowSeconds = windowSeconds;
+
+        // 桶數要足以涵蓋最大的視窗
+        long max = bucketSeconds;
+        for (long w : windowSeconds) {
+            max = Math.max(max, w);
+        }
+        int bucketCount = (int) ((max + bucketSeconds - 1) / bucketSeconds);
+
+        this.reads = new HotKeyWindow(capacity, bucketSeconds * 1000, bucketCount, stripes);
+        this.writes = new HotKeyWindow(capacity, bucketSeconds * 1000, bucketCount, stripes);
+    }
+
+    public void recordRead(Integer id) {
+        if (id != null && !ignored.get()) {
+            reads.record(id, System.currentTimeMillis());
+        }
+    }
+
+    public void recordWrite(Integer id) {
+        if (id != null && !ignored.get()) {
+            writes.record(id, System.currentTimeMillis());
+        }
+    }
+
+    // 依照每個視窗回傳前 n 名的讀取熱點，key 是視窗名稱（例如 "60s"）
+    public Map<String, List<HotKey>> topReads(int n) {
+        return top(reads, n);
+    }
+
+    // 依照每個視窗回傳前 n 名的寫入熱點
+    public Map<String, List<HotKey>> topWrites(int n) {
+        return top(writes, n);
+    }
+
+    // 設定目前執行緒之後的存取是否不列入統計，只影響呼叫的這條執行緒
+    public void ignoreCurrentThread(boolean ignore) {
+        if (ignore) {
+            ignored.set(true);
+        } else {
+            ignored.remove();
+        }
+    }
+
+    private Map<String, List<HotKey>> top(HotKeyWindow window, int n) {
+        long now = System.currentTimeMillis();
+        Map<String, List<HotKey>> map = new LinkedHashMap<>();
+        for (long w : windowSeconds) {
+            map.put(w + "s", window.top(n, w * 1000, now));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.metrics;
+
+import com.example.demo.model.HotKey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 以「時間桶」實作的滑動視窗熱點統計
+// 每個時間桶（例如 10 秒）各自有一個 SpaceSavingSketch，
+// 查詢最近 N 秒的熱點時，把落在視窗內的桶合併起來排序
+// 時間桶要比最小的視窗小很多，視窗才會跟著時間一格一格往前滑，而不是每到整點就歸零
+//
+// 記錄是在每個請求的執行緒上做的，為了不讓所有執行緒搶同一把鎖，
+// 依執行緒分成多個 stripe，每個 stripe 有自己的一組時間桶與鎖，查詢時再全部合併
+//
+// 總記憶體 = stripe 數 × 桶數 × 每桶 capacity 個計數器，是固定的上限
+public class HotKeyWindow {
+
+    private final long bucketMillis;
+
+    private final Stripe[] stripes;
+
+    public HotKeyWindow(int capacity, long bucketMillis, int bucketCount, int stripeCount) {
+        this.bucketMillis = bucketMillis;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(capacity, bucketCount);
+        }
+    }
+
+    // 記錄某個 key 在 nowMillis 這個時間點被存取一次
+    // 同一條執行緒固定落在同一個 stripe，不同執行緒大多不會互相等待
+    public void record(Integer key, long nowMillis) {
+        Stripe stripe = stripes[(int) (Thread.currentThread().getId() % stripes.length)];
+        stripe.record(key, nowMillis / bucketMillis);
+    }
+
+    // 取出最近 windowMillis 毫秒內前 n 名的熱點 key
+    public List<HotKey> top(int n, long windowMillis, long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        long windowBuckets = Math.max(1, windowMillis / bucketMillis);
+        long oldest = current - windowBuckets + 1;
+
+        // 每個 stripe 只在複製自己的計數器時上鎖，合併與排序都在鎖外面做
+        List<Map<Integer, SpaceSavingSketch.Counter>> inWindow = new ArrayList<>();
+        List<Long> minCounts = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.collect(oldest, current, inWindow, minCounts);
+        }
+
+        // 合併視窗內各 stripe、各桶的計數
+        // 某個 key 在某一桶沒有計數器，不代表它在那一桶沒出現過：桶滿了之後它可能被擠掉，
+        // 真實次數最多是那一桶的最小計數，所以次數與誤差都要加上該桶的 minCount()，
+        // 合併後的 count 才仍然是上限，count - error 仍然是下限
+        Map<Integer, long[]> merged = new HashMap<>();
+        for (Map<Integer, SpaceSavingSketch.Counter> byKey : inWindow) {
+            for (Integer key : byKey.keySet()) {
+                merged.putIfAbsent(key, new long[2]);
+            }
+        }
+
+        for (Map.Entry<Integer, long[]> e : merged.entrySet()) {
+            long[] acc = e.getValue();
+            for (int b = 0; b < inWindow.size(); b++) {
+                SpaceSavingSketch.Counter c = inWindow.get(b).get(e.getKey());
+                if (c != null) {
+                    acc[0] += c.getCount();
+                    acc[1] += c.getError();
+                } else {
+                    acc[0] += minCounts.get(b);
+                    acc[1] += minCounts.get(b);
+                }
+            }
+        }
+
+        // 最新的桶只經過了一部分，速率要除以視窗實際涵蓋的時間，而不是完整的視窗長度
+        double seconds = Math.max(1, nowMillis - oldest * bucketMillis) / 1000.0;
+        List<HotKey> list = new ArrayList<>(merged.size());
+        for (Map.Entry<Integer, long[]> e : merged.entrySet()) {
+            long count = e.getValue()[0];
+            list.add(new HotKey(e.getKey(), count, e.getValue()[1], count / seconds));
+        }
+        list.sort(Comparator.comparingLong(HotKey::getCount).reversed());
+
+        return list.size() > n ? new ArrayList<>(list.subList(0, n)) : list;
+    }
+
+    // 一組獨立上鎖的時間桶
+    private static class Stripe {
+
+        // 環狀陣列：第 i 個桶目前代表的「桶編號」（時間 / bucketMillis），-1 代表尚未使用
+        private final long[] bucketIndexes;
+
+        private final SpaceSavingSketch[] buckets;
+
+        Stripe(int capacity, int bucketCount) {
+            this.bucketIndexes = new long[bucketCount];
+            this.buckets = new SpaceSavingSketch[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                bucketIndexes[i] = -1;
+                buckets[i] = new SpaceSavingSketch(capacity);
+            }
+        }
+
+        synchronized void record(Integer key, long index) {
+            int slot = (int) (index % buckets.length);
+
+            // 這個位置還是舊的時間桶，代表已經滑出視窗，清空後重新使用
+            if (bucketIndexes[slot] != index) {
+                buckets[slot].clear();
+                bucketIndexes[slot] = index;
+            }
+            buckets[slot].offer(key);
+        }
+
+        // 把落在 [oldest, current] 的桶複製出來
+        synchronized void collect(long oldest, long current,
+                                  List<Map<Integer, SpaceSavingSketch.Counter>> inWindow, List<Long> minCounts) {
+            for (int i = 0; i < buckets.length; i++) {
+                if (bucketIndexes[i] < oldest || bucketIndexes[i] > current) {
+                    continue;
+                }
+                Map<Integer, SpaceSavingSketch.Counter> byKey = new HashMap<>();
+                for (SpaceSavingSketch.Counter c : buckets[i].counters()) {
+                    byKey.put(c.getKey(), c);
+                }
+                inWindow.add(byKey);
+                minCounts.add(buckets[i].minCount());
+            }
+        }
+    }
+}
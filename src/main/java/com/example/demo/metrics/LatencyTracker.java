@@ -0,0 +1,55 @@
+package com.example.demo.metrics;
+
+import java.util.Arrays;
+
+// 記錄最近 N 次的延遲（奈秒），並估算指定百分位數（例如 p95）
+// 百分位數每累積一定次數才重新排序計算一次，避免每次查詢都要排序
+public class LatencyTracker {
+
+    // 環狀陣列，保存最近的延遲樣本
+    private final long[] samples;
+
+    // 每記錄幾筆才重新計算一次百分位數
+    private final int recomputeEvery;
+
+    private int next;
+
+    private int size;
+
+    private int sinceRecompute;
+
+    // 上一次計算出來的百分位數與對應的 p，-1 代表尚未計算
+    private long cached = -1;
+
+    private double cachedPercentile = -1;
+
+    public LatencyTracker(int capacity, int recomputeEvery) {
+        this.samples = new long[capacity];
+        this.recomputeEvery = recomputeEvery;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+        sinceRecompute++;
+    }
+
+    // 回傳最近樣本的第 percentile 百分位數（0 ~ 1），沒有任何樣本時回傳 -1
+    public synchronized long percentile(double percentile) {
+        if (size == 0) {
+            return -1;
+        }
+        if (cached < 0 || cachedPercentile != percentile || sinceRecompute >= recomputeEvery) {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            cached = sorted[Math.max(0, Math.min(size - 1, index))];
+            cachedPercentile = percentile;
+            sinceRecompute = 0;
+        }
+        return cached;
+    }
+}
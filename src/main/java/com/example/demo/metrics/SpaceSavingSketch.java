@@ -0,0 +1,172 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Space-Saving 串流演算法（Metwally et al.）
+// 只用固定數量（capacity）的計數器，近似找出出現次數最多的 key（heavy hitters）
+// 記憶體用量固定，不會因為 id 越來越多而無限成長
+//
+// 規則：
+// - key 已經有計數器：直接加上次數
+// - 還有空位：新增一個計數器
+// - 已經滿了：把「次數最小」的計數器讓給新的 key，新 key 的次數 = 最小次數 + 本次次數，
+//   並把被取代的最小次數記在 error，代表這個 key 可能被高估的上限
+//
+// 計數器同時放在一個依次數排序的最小堆積（top-K heap）裡，堆頂就是次數最小的計數器，
+// 找最小值是 O(1)，加次數、替換都只需要 O(log capacity) 的調整，不用每次掃描全部計數器
+//
+// 注意：這個類別本身不是執行緒安全的，由呼叫端（HotKeyWindow）負責同步
+public class SpaceSavingSketch {
+
+    // 最多同時追蹤幾個 key
+    private final int capacity;
+
+    // key -> 計數器
+    private final Map<Integer, Counter> counters;
+
+    // 依 count 排序的最小堆積，heap[0] 是次數最小的計數器
+    private final Counter[] heap;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    // 記錄 key 出現一次
+    public void offer(Integer key) {
+        offer(key, 1);
+    }
+
+    // 記錄 key 出現 increment 次
+    public void offer(Integer key, long increment) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            // 次數只會變大，在最小堆積中只需要往下調整
+            counter.count += increment;
+            siftDown(counter.heapIndex);
+            return;
+        }
+
+        int size = counters.size();
+        if (size < capacity) {
+            counter = new Counter(key, increment, 0);
+            counters.put(key, counter);
+            heap[size] = counter;
+            counter.heapIndex = size;
+            siftUp(size);
+            return;
+        }
+
+        // 已經滿了，用堆頂（次數最小）的計數器讓給新的 key
+        Counter min = heap[0];
+        counters.remove(min.key);
+        counter = new Counter(key, min.count + increment, min.count);
+        counters.put(key, counter);
+        heap[0] = counter;
+        counter.heapIndex = 0;
+        siftDown(0);
+    }
+
+    // 沒被追蹤的 key 最多可能出現過幾次
+    // 計數器還沒滿時，沒被追蹤的 key 一定沒出現過（0）；
+    // 滿了以後，被擠掉的 key 真實次數不會超過目前最小的計數
+    public long minCount() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        return heap[0].count;
+    }
+
+    // 清空所有計數器（滑動視窗換桶時使用）
+    public void clear() {
+        counters.clear();
+        Arrays.fill(heap, null);
+    }
+
+    // 目前追蹤中的計數器（複製一份，避免呼叫端改到內部狀態）
+    public List<Counter> counters() {
+        List<Counter> list = new ArrayList<>(counters.size());
+        for (Counter c : counters.values()) {
+            list.add(new Counter(c.key, c.count, c.error));
+        }
+        return list;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent].count <= heap[i].count) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        int size = counters.size();
+        while (true) {
+            int smallest = i;
+            int left = i * 2 + 1;
+            int right = left + 1;
+            if (left < size && heap[left].count < heap[smallest].count) {
+                smallest = left;
+            }
+            if (right < size && heap[right].count < heap[smallest].count) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Counter tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+        heap[i].heapIndex = i;
+        heap[j].heapIndex = j;
+    }
+
+    // 單一 key 的計數器
+    // count: 估計次數（可能高估，但不會低估）
+    // error: 高估的上限，真實次數介於 count - error 與 count 之間
+    public static class Counter {
+
+        private final Integer key;
+        private long count;
+        private long error;
+
+        // 在最小堆積中的位置
+        private int heapIndex;
+
+        public Counter(Integer key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public Integer getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+}
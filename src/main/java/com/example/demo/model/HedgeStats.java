@@ -0,0 +1,93 @@
+package com.example.demo.model;
+
+// 對沖讀取（hedged read）的統計，用來評估多送出的查詢帶來多少額外負載
+public class HedgeStats {
+
+    // 走對沖模式的讀取次數
+    private long reads;
+
+    // 因為第一次查詢太慢而多送出的第二次查詢次數
+    private long hedgesIssued;
+
+    // 因為執行緒池或連線池飽和而略過對沖的次數（直接在呼叫端查詢，或沒有送出第二次查詢）
+    private long hedgesSkipped;
+
+    // 第二次查詢比第一次先回來的次數
+    private long hedgeWins;
+
+    // 被取消（Statement.cancel）的落後查詢次數
+    private long cancellations;
+
+    // 超過整體期限而失敗的讀取次數
+    private long deadlineExceeded;
+
+    // 額外負載比例 = hedgesIssued / reads
+    private double extraLoadRatio;
+
+    // 目前送出第二次查詢前的等待時間（毫秒），由最近延遲的百分位數決定
+    private double hedgeDelayMillis;
+
+    public long getReads() {
+        return reads;
+    }
+
+    public void setReads(long reads) {
+        this.reads = reads;
+    }
+
+    public long getHedgesIssued() {
+        return hedgesIssued;
+    }
+
+    public void setHedgesIssued(long hedgesIssued) {
+        this.hedgesIssued = hedgesIssued;
+    }
+
+    public long getHedgesSkipped() {
+        return hedgesSkipped;
+    }
+
+    public void setHedgesSkipped(long hedgesSkipped) {
+        this.hedgesSkipped = hedgesSkipped;
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    public void setHedgeWins(long hedgeWins) {
+        this.hedgeWins = hedgeWins;
+    }
+
+    public long getCancellations() {
+        return cancellations;
+    }
+
+    public void setCancellations(long cancellations) {
+        this.cancellations = cancellations;
+    }
+
+    public long getDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+
+    public void setDeadlineExceeded(long deadlineExceeded) {
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    public double getExtraLoadRatio() {
+        return extraLoadRatio;
+    }
+
+    public void setExtraLoadRatio(double extraLoadRatio) {
+        this.extraLoadRatio = extraLoadRatio;
+    }
+
+    public double getHedgeDelayMillis() {
+        return hedgeDelayMillis;
+    }
+
+    public void setHedgeDelayMillis(double hedgeDelayMillis) {
+        this.hedgeDelayMillis = hedgeDelayMillis;
+    }
+}
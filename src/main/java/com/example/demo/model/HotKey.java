@@ -0,0 +1,40 @@
+package com.example.demo.model;
+
+// 熱點 key 的統計結果，會被轉成 JSON 回傳給 /hotkeys
+public class HotKey {
+
+    // 學生 id
+    private Integer id;
+
+    // 視窗內存取次數的上限（可能高估，不會低估）
+    private long count;
+
+    // 可能高估的幅度，真實次數介於 count - error 與 count 之間
+    private long error;
+
+    // 平均每秒存取次數
+    private double ratePerSecond;
+
+    public HotKey(Integer id, long count, long error, double ratePerSecond) {
+        this.id = id;
+        this.count = count;
+        this.error = error;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getError() {
+        return error;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+}
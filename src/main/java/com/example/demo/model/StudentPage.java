@@ -0,0 +1,26 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+// 游標分頁的一頁結果，會被轉成 JSON 回傳給 /students/created
+public class StudentPage {
+
+    // 這一頁的學生資料
+    private List<Student> students;
+
+    // 下一頁的游標，放到下一次請求的 cursor 參數；null 代表已經沒有下一頁
+    private String nextCursor;
+
+    public StudentPage(List<Student> students, String nextCursor) {
+        this.students = students;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 整個暖機流程的報告，會被轉成 JSON 回傳給 /warmup
+public class WarmupReport {
+
+    // 暖機是否已經跑完（不論各階段成功與否）
+    private boolean completed;
+
+    // 總花費時間（毫秒）
+    private long totalMillis;
+
+    // 各階段的結果，依執行順序排列
+    private List<WarmupStage> stages = new ArrayList<>();
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public void setTotalMillis(long totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    public List<WarmupStage> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<WarmupStage> stages) {
+        this.stages = stages;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.model;
+
+// 暖機流程中單一階段的執行結果
+public class WarmupStage {
+
+    // 階段名稱，例如 pool、dao、http、jackson
+    private String name;
+
+    // 實際執行了幾次
+    private int iterations;
+
+    // 花費的時間（毫秒）
+    private long elapsedMillis;
+
+    // 是否因為時間預算用完而提早結束
+    private boolean budgetExhausted;
+
+    // 執行失敗時的錯誤訊息，成功時為 null
+    private String error;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    public void setBudgetExhausted(boolean budgetExhausted) {
+        this.budgetExhausted = budgetExhausted;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
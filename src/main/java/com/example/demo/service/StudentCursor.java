@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Student;
+
+import java.util.Date;
+
+// GET /students/created 的分頁游標：上一頁最後一筆的 (create_date, id)
+// 字串格式為「create_date 毫秒數_id」，例如 1700000000000_42
+public class StudentCursor {
+
+    private final Date createDate;
+
+    private final Integer id;
+
+    public StudentCursor(Date createDate, Integer id) {
+        this.createDate = createDate;
+        this.id = id;
+    }
+
+    // 以某一筆學生資料作為下一頁的起點
+    public static String encode(Student last) {
+        return last.getCreateDate().getTime() + "_" + last.getId();
+    }
+
+    // 解析游標字串，格式錯誤時拋出 IllegalArgumentException
+    public static StudentCursor decode(String cursor) {
+        String[] parts = cursor.split("_", -1);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+        try {
+            return new StudentCursor(new Date(Long.parseLong(parts[0])), Integer.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+    }
+
+    public Date getCreateDate() {
+        return createDate;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Student;
+import com.example.demo.model.StudentPage;
+
+import java.util.Date;
 
 public interface StudentService {
 
@@ -11,4 +14,8 @@ public interface StudentService {
     void deleteById(Integer id);
 
     Student getById(Integer id);
+
+    StudentPage getByCreateDateRange(Date from, Date to, String cursor, int limit);
+
+    long countByCreateDateRange(Date from, Date to);
 }
@@ -1,10 +1,15 @@
 package com.example.demo.service;
 
 import com.example.demo.dao.StudentDao;
+import com.example.demo.metrics.HotKeyTracker;
 import com.example.demo.model.Student;
+import com.example.demo.model.StudentPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+import java.util.List;
+
 // 告訴 Spring 這是一個元件（類別），會自動被掃描並註冊為 Bean
 @Component
 public class StudentServiceImpl implements StudentService {
@@ -13,6 +18,10 @@ public class StudentServiceImpl implements StudentService {
     @Autowired
     private StudentDao studentDao;
 
+    // 記錄每次讀取、更新的學生 id，用來找出熱點 key
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
     // 實作介面中的 insert 方法，將學生資料新增到資料庫中
     @Override
     /*
@@ -24,16 +33,47 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     public void update(Student student) {
+        hotKeyTracker.recordWrite(student.getId());
         studentDao.update(student);
     }
 
     @Override
     public void deleteById(Integer id) {
+        hotKeyTracker.recordWrite(id);
         studentDao.deleteById(id);
     }
 
     @Override
     public Student getById(Integer id) {
+        hotKeyTracker.recordRead(id);
         return studentDao.getById(id);
     }
+
+    // 游標格式見 StudentCursor
+    @Override
+    public StudentPage getByCreateDateRange(Date from, Date to, String cursor, int limit) {
+        Date afterCreateDate = null;
+        Integer afterId = null;
+
+        if (cursor != null && !cursor.isEmpty()) {
+            StudentCursor after = StudentCursor.decode(cursor);
+            afterCreateDate = after.getCreateDate();
+            afterId = after.getId();
+        }
+
+        List<Student> students = studentDao.getByCreateDateRange(from, to, afterCreateDate, afterId, limit);
+
+        // 拿滿一整頁才可能還有下一頁
+        String nextCursor = null;
+        if (students.size() == limit) {
+            nextCursor = StudentCursor.encode(students.get(students.size() - 1));
+        }
+
+        return new StudentPage(students, nextCursor);
+    }
+
+    @Override
+    public long countByCreateDateRange(Date from, Date to) {
+        return studentDao.countByCreateDateRange(from, to);
+    }
 }
@@ -0,0 +1,49 @@
+package com.example.demo.warmup;
+
+import com.example.demo.metrics.HotKeyTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+
+// 辨識 WarmupRunner 自己送出的暖機請求，讓它們不列入熱點統計
+//
+// 暖機請求會經過 Tomcat，由 Tomcat 的執行緒處理，所以要在處理請求的那條執行緒上標記；
+// 標記用的 token 每次啟動隨機產生，外部請求就算帶了同名的 header 也不會被排除
+@Component
+public class WarmupRequestFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Warmup-Token";
+
+    private final String token = UUID.randomUUID().toString();
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    public String getToken() {
+        return token;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        if (!token.equals(request.getHeader(HEADER))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        hotKeyTracker.ignoreCurrentThread(true);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            hotKeyTracker.ignoreCurrentThread(false);
+        }
+    }
+}
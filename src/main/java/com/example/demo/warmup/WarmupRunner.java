@@ -0,0 +1,265 @@
+package com.example.demo.warmup;
+
+import com.example.demo.dao.StudentDao;
+import com.example.demo.model.Student;
+import com.example.demo.model.WarmupReport;
+import com.example.demo.model.WarmupStage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 啟動暖機：在應用程式回報 ready 之前，先把連線池、JIT、Jackson 都熱起來
+//
+// Spring Boot 會在所有 ApplicationRunner 執行完之後，才發佈 ReadinessState.ACCEPTING_TRAFFIC
+// （/actuator/health/readiness 才會變成 UP），所以放在這裡跑的暖機可以擋住剛部署好的流量，
+// 避免前幾千個請求因為連線還沒建立、程式還在直譯執行而特別慢
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private StudentDao studentDao;
+
+    // 用來取得 local.server.port（內嵌的 Tomcat 啟動後才會有）
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Autowired
+    private WarmupRequestFilter warmupRequestFilter;
+
+    // Spring Boot 自動配置的 ObjectMapper，也就是 Controller 回傳 JSON 時用的那一個
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 是否啟用暖機
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    // 暖機時查詢用的學生 id，會輪流使用
+    @Value("${warmup.student-ids:1}")
+    private int[] studentIds;
+
+    // 每個階段最多執行幾次（足以讓熱點方法被 JIT 編譯）
+    @Value("${warmup.iterations:5000}")
+    private int iterations;
+
+    // 每個階段最多花多少時間（毫秒）
+    @Value("${warmup.stage-budget-ms:5000}")
+    private long stageBudgetMs;
+
+    // 整個暖機最多花多少時間（毫秒），超過就直接結束，不會無限拖延上線
+    @Value("${warmup.total-budget-ms:20000}")
+    private long totalBudgetMs;
+
+    // 預先建立幾條連線，0 代表使用連線池的最大連線數
+    @Value("${warmup.pool-connections:0}")
+    private int poolConnections;
+
+    // 最近一次暖機的報告
+    private volatile WarmupReport report = new WarmupReport();
+
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(totalBudgetMs);
+        WarmupReport result = new WarmupReport();
+
+        // 1. 連線池：一次借出多條連線，讓連線池事先把實體連線建立好
+        result.getStages().add(warmPool(deadline));
+
+        // 2. DAO：反覆執行查詢，讓 JDBC 驅動、RowMapper 等程式碼被 JIT 編譯
+        Student[] sample = new Student[1];
+        result.getStages().add(runStage("dao", deadline, i -> {
+            Student student = studentDao.getById(studentIds[i % studentIds.length]);
+            if (student != null) {
+                sample[0] = student;
+            }
+        }));
+
+        // 3. HTTP：對自己送出真正的 GET /students/{id}，走完 Tomcat -> DispatcherServlet -> 參數綁定
+        //    -> Controller -> Service -> DAO -> Jackson HttpMessageConverter 的完整路徑，
+        //    也就是新 Pod 前幾個請求實際要付出的冷啟動成本
+        result.getStages().add(warmHttp(deadline));
+
+        // 4. Jackson：預先建立 Student 的序列化器與反序列化器
+        Student student = sample[0] != null ? sample[0] : placeholder();
+        result.getStages().add(runStage("jackson", deadline, i -> {
+            String json = objectMapper.writeValueAsString(student);
+            objectMapper.readValue(json, Student.class);
+        }));
+
+        result.setTotalMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        result.setCompleted(true);
+        report = result;
+
+        log.info("暖機完成，總共花費 {} ms", result.getTotalMillis());
+        for (WarmupStage stage : result.getStages()) {
+            if (stage.getError() != null) {
+                log.warn("  {}: {} 次, {} ms{}，錯誤: {}", stage.getName(), stage.getIterations(),
+                        stage.getElapsedMillis(), stage.isBudgetExhausted() ? "（時間預算用完）" : "", stage.getError());
+            } else {
+                log.info("  {}: {} 次, {} ms{}", stage.getName(), stage.getIterations(),
+                        stage.getElapsedMillis(), stage.isBudgetExhausted() ? "（時間預算用完）" : "");
+            }
+        }
+    }
+
+    WarmupStage warmPool(long deadline) {
+        WarmupStage stage = new WarmupStage();
+        stage.setName("pool");
+        long start = System.nanoTime();
+
+        int count = poolConnections;
+        if (count <= 0) {
+            count = dataSource instanceof HikariDataSource
+                    ? ((HikariDataSource) dataSource).getMaximumPoolSize()
+                    : 10;
+        }
+
+        // 連線要同時借出才會逼連線池建立新的實體連線，最後再一起歸還
+        List<Connection> connections = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                if (System.nanoTime() - deadline > 0) {
+                    stage.setBudgetExhausted(true);
+                    break;
+                }
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                connection.isValid(1);
+            }
+        } catch (Exception e) {
+            stage.setError(e.toString());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (Exception ignored) {
+                    // 歸還失敗不影響暖機結果
+                }
+            }
+        }
+
+        stage.setIterations(connections.size());
+        stage.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return stage;
+    }
+
+    private WarmupStage warmHttp(long deadline) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            // 沒有啟動內嵌的 web server（例如非 web 的測試環境），沒有 HTTP 路徑可以暖
+            WarmupStage stage = new WarmupStage();
+            stage.setName("http");
+            stage.setError("local.server.port is not available");
+            return stage;
+        }
+
+        // 單次請求的逾時不超過階段預算，避免某個請求卡住拖延上線
+        Duration timeout = Duration.ofMillis(stageBudgetMs);
+        RestTemplate restTemplate = restTemplateBuilder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .errorHandler(new ServerErrorHandler())
+                .build();
+
+        // 帶上 WarmupRequestFilter 的 token，這些請求不列入熱點統計
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(WarmupRequestFilter.HEADER, warmupRequestFilter.getToken());
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        String url = "http://localhost:" + port + "/students/{id}";
+        return runStage("http", deadline, i -> restTemplate.exchange(
+                url, HttpMethod.GET, request, Student.class, studentIds[i % studentIds.length]));
+    }
+
+    // 反覆執行 step，直到次數用完、階段時間預算用完，或整體時間預算用完
+    // 任何一次發生錯誤就停止這個階段，但不會讓應用程式啟動失敗
+    WarmupStage runStage(String name, long totalDeadline, Step step) {
+        WarmupStage stage = new WarmupStage();
+        stage.setName(name);
+
+        long start = System.nanoTime();
+        long deadline = Math.min(totalDeadline, start + TimeUnit.MILLISECONDS.toNanos(stageBudgetMs));
+
+        int i = 0;
+        try {
+            for (; i < iterations; i++) {
+                if (System.nanoTime() - deadline > 0) {
+                    stage.setBudgetExhausted(true);
+                    break;
+                }
+                step.run(i);
+            }
+        } catch (Exception e) {
+            stage.setError(e.toString());
+        }
+
+        stage.setIterations(i);
+        stage.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return stage;
+    }
+
+    // 資料庫查不到任何學生時，用一個假的 Student 來暖 Jackson
+    private Student placeholder() {
+        Student student = new Student();
+        student.setId(0);
+        student.setName("warmup");
+        student.setScore(0.0);
+        student.setGraduate(false);
+        student.setCreateDate(new Date());
+        return student;
+    }
+
+    // 暖機時每一次要執行的動作
+    interface Step {
+        void run(int i) throws Exception;
+    }
+
+    // 4xx（例如暖機用的 id 不存在）一樣走完了整條路徑，只有 5xx 才視為暖機失敗
+    private static class ServerErrorHandler extends DefaultResponseErrorHandler {
+
+        @Override
+        public boolean hasError(ClientHttpResponse response) throws IOException {
+            return response.getStatusCode().is5xxServerError();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+-- 建立畢業生封存表 student_archive，只需要手動執行一次（在啟用 student.archive.enabled 之前）
+-- 由 StudentArchiveJob 把久未讀取的畢業生從 student 分批搬過來
+--
+-- 欄位與 student 相同（型別請與 student 保持一致），id 保留原本在 student 的值，所以不是 AUTO_INCREMENT
+-- 封存表只會用 id 查詢，主鍵只有 id，也不分區；
+-- 不用 CREATE TABLE ... LIKE student，因為 student 執行過 db/student-partition.sql 之後，
+-- LIKE 會連分區與 (id, create_date) 主鍵一起複製過來
+
+CREATE TABLE IF NOT EXISTS student_archive (
+    id          INT          NOT NULL,
+    name        VARCHAR(30)  NOT NULL,
+    score       DOUBLE       NOT NULL,
+    graduate    BOOLEAN      NOT NULL,
+    create_date DATETIME     NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,26 @@
+-- 把 student 依 create_date 按月分區（RANGE COLUMNS），只需要手動執行一次
+--
+-- MySQL 規定分區欄位必須包含在每一個 unique key 裡，所以主鍵要改成 (id, create_date)
+-- id 仍然是 AUTO_INCREMENT，也仍然是主鍵的第一個欄位
+-- 另外加上 (create_date, id) 索引，給 GET /students/created 的游標分頁使用
+--
+-- 代價：MySQL 的索引都是各分區各自一份，只用 id 查詢（getById、deleteById、沒有 create_date 的 update）
+-- 時，每個分區都要找一次，分區越多越慢。StudentDaoImpl.update 在知道 create_date 時會帶上以裁剪分區；
+-- 執行前請先評估 id 查詢與 create_date 範圍查詢哪一種比較重要
+--
+-- 月份分區由 StudentPartitionJob 從 p_future 拆出來（student.partition.enabled=true）：
+-- 第一次執行時，從 p_future 裡最早的 create_date 月份開始，每個月切出一個分區，
+-- 一次 REORGANIZE 完成，會重寫 2020 年以後的所有資料，請在離峰時段啟用；
+-- 之後每次只會從 p_future 拆出還沒有資料的未來月份
+
+ALTER TABLE student
+    MODIFY create_date DATETIME NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, create_date),
+    ADD INDEX idx_student_create_date (create_date, id);
+
+ALTER TABLE student
+    PARTITION BY RANGE COLUMNS (create_date) (
+        PARTITION p_past VALUES LESS THAN ('2020-01-01'),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE)
+    );
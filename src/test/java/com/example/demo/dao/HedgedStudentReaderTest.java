@@ -0,0 +1,334 @@
+package com.example.demo.dao;
+
+import com.example.demo.model.HedgeStats;
+import com.example.demo.model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 用假的 DataSource 控制每一次查詢花多久，驗證對沖、期限與取消的行為
+// 還沒有任何延遲樣本時，送出第二次查詢前會等「總期限的一半」
+public class HedgedStudentReaderTest {
+
+    private final FakeDatabase database = new FakeDatabase();
+
+    private HedgedStudentReader reader;
+
+    @AfterEach
+    public void tearDown() {
+        if (reader != null) {
+            reader.shutdown();
+        }
+    }
+
+    @Test
+    public void hedgeWinsAndCancelsPrimary() {
+        reader = reader(4, 400);
+
+        // 第一次查詢很慢，200ms 後送出的第二次查詢馬上回來
+        database.queryMillis(5000, 0);
+
+        List<Student> result = reader.query(1);
+        assertEquals(1, result.size());
+        assertEquals("Amy", result.get(0).getName());
+
+        HedgeStats stats = reader.stats();
+        assertEquals(1, stats.getReads());
+        assertEquals(1, stats.getHedgesIssued());
+        assertEquals(1, stats.getHedgeWins());
+        assertEquals(1, stats.getCancellations());
+
+        // 落後的第一次查詢要被 Statement.cancel 取消
+        await(() -> database.cancelled.get() == 1);
+
+        // 記錄的是第一次查詢的延遲（至少等了 200ms），不是贏家的延遲
+        assertTrue(stats.getHedgeDelayMillis() >= 200);
+    }
+
+    @Test
+    public void deadlineThrowsQueryTimeout() {
+        reader = reader(4, 300);
+        database.queryMillis(5000, 5000);
+
+        assertThrows(QueryTimeoutException.class, () -> reader.query(1));
+
+        HedgeStats stats = reader.stats();
+        assertEquals(1, stats.getDeadlineExceeded());
+        assertEquals(1, stats.getHedgesIssued());
+        assertEquals(2, stats.getCancellations());
+        await(() -> database.cancelled.get() == 2);
+    }
+
+    @Test
+    public void hedgeCancelledBeforeRegisterIsNeverExecuted() {
+        reader = reader(4, 1000);
+
+        // 第二次查詢在 500ms 送出，但要等到 1300ms 才拿到連線；第一次查詢在 700ms 就回來了
+        database.queryMillis(700, 0);
+        database.connectionMillis(0, 800);
+
+        List<Student> result = reader.query(1);
+        assertEquals(1, result.size());
+        assertEquals(1, reader.stats().getCancellations());
+        assertEquals(0, reader.stats().getHedgeWins());
+
+        // 第二次查詢拿到連線時已經被取消：Statement 建立後直接關閉，不會送到資料庫
+        await(() -> database.prepared.get() == 2 && database.closed.get() == 2);
+        assertEquals(1, database.executed.get());
+        assertEquals(0, database.cancelled.get());
+    }
+
+    @Test
+    public void skipsHedgeWhenSaturated() {
+
+        // 只有一條執行緒，第一次查詢執行中時執行緒池就已經飽和
+        reader = reader(1, 1000);
+        database.queryMillis(700);
+
+        List<Student> result = reader.query(1);
+        assertEquals(1, result.size());
+
+        HedgeStats stats = reader.stats();
+        assertEquals(0, stats.getHedgesIssued());
+        assertEquals(1, stats.getHedgesSkipped());
+        assertEquals(1, database.executed.get());
+    }
+
+    @Test
+    public void inlineFallbackKeepsDeadline() throws InterruptedException {
+        reader = reader(1, 300);
+
+        // 讓執行緒池的執行緒被佔住，而且還有工作在排隊
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(reader, "executor");
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.execute(blocker);
+        executor.execute(blocker);
+
+        try {
+            database.queryMillis(5000);
+
+            // 在呼叫端的執行緒查詢，一樣要設定資料庫端的逾時，超過就以 QueryTimeoutException 結束
+            assertThrows(QueryTimeoutException.class, () -> reader.query(1));
+
+            HedgeStats stats = reader.stats();
+            assertEquals(1, stats.getHedgesSkipped());
+            assertEquals(1, stats.getDeadlineExceeded());
+            assertEquals(List.of(1), database.queryTimeouts);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private HedgedStudentReader reader(int threads, long deadlineMs) {
+        HedgedStudentReader reader = new HedgedStudentReader(threads);
+        ReflectionTestUtils.setField(reader, "jdbcTemplate", new JdbcTemplate(database.dataSource()));
+        ReflectionTestUtils.setField(reader, "enabled", true);
+        ReflectionTestUtils.setField(reader, "percentile", 0.95);
+        ReflectionTestUtils.setField(reader, "minDelayMs", 2L);
+        ReflectionTestUtils.setField(reader, "deadlineMs", deadlineMs);
+        return reader;
+    }
+
+    // 最多等 3 秒，直到條件成立
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met in time");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("interrupted");
+            }
+        }
+    }
+
+    // 假的資料庫：第 n 條連線、第 n 個 Statement 各自要花多久由測試指定
+    // 查詢會一直執行到時間到、被 cancel，或超過 setQueryTimeout 設定的秒數
+    private static class FakeDatabase {
+
+        private final Map<Integer, Long> queryMillis = new ConcurrentHashMap<>();
+        private final Map<Integer, Long> connectionMillis = new ConcurrentHashMap<>();
+
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger prepared = new AtomicInteger();
+        private final AtomicInteger executed = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+        private final AtomicInteger closed = new AtomicInteger();
+        private final List<Integer> queryTimeouts = new CopyOnWriteArrayList<>();
+
+        void queryMillis(long... millis) {
+            for (int i = 0; i < millis.length; i++) {
+                queryMillis.put(i, millis[i]);
+            }
+        }
+
+        void connectionMillis(long... millis) {
+            for (int i = 0; i < millis.length; i++) {
+                connectionMillis.put(i, millis[i]);
+            }
+        }
+
+        DataSource dataSource() {
+            return proxy(DataSource.class, (method, args) -> {
+                if (method.equals("getConnection")) {
+                    sleep(connectionMillis.getOrDefault(connections.getAndIncrement(), 0L));
+                    return connection();
+                }
+                return null;
+            });
+        }
+
+        private Connection connection() {
+            return proxy(Connection.class, (method, args) -> {
+                if (method.equals("prepareStatement")) {
+                    return statement(prepared.getAndIncrement());
+                }
+                return null;
+            });
+        }
+
+        private PreparedStatement statement(int index) {
+            boolean[] cancel = new boolean[1];
+            int[] timeout = new int[1];
+            return proxy(PreparedStatement.class, (method, args) -> {
+                switch (method) {
+                    case "setQueryTimeout":
+                        timeout[0] = (Integer) args[0];
+                        queryTimeouts.add(timeout[0]);
+                        return null;
+                    case "cancel":
+                        synchronized (cancel) {
+                            cancel[0] = true;
+                        }
+                        cancelled.incrementAndGet();
+                        return null;
+                    case "close":
+                        closed.incrementAndGet();
+                        return null;
+                    case "executeQuery":
+                        executed.incrementAndGet();
+                        long start = System.currentTimeMillis();
+                        long duration = queryMillis.getOrDefault(index, 0L);
+                        while (System.currentTimeMillis() - start < duration) {
+                            synchronized (cancel) {
+                                if (cancel[0]) {
+                                    throw new SQLException("Query execution was interrupted", "70100", 1317);
+                                }
+                            }
+                            if (timeout[0] > 0 && System.currentTimeMillis() - start >= timeout[0] * 1000L) {
+                                throw new SQLTimeoutException("Statement cancelled due to timeout");
+                            }
+                            sleep(5);
+                        }
+                        return resultSet();
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        // 只有一筆 id = 1 的學生
+        private ResultSet resultSet() {
+            int[] row = new int[1];
+            return proxy(ResultSet.class, (method, args) -> {
+                switch (method) {
+                    case "next":
+                        return row[0]++ == 0;
+                    case "getInt":
+                        return 1;
+                    case "getString":
+                        return "Amy";
+                    case "getDouble":
+                        return 90.3;
+                    case "getBoolean":
+                        return true;
+                    case "getTimestamp":
+                        return new Timestamp(0);
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // 沒有特別處理的方法回傳型別的預設值（null、0、false），Object 的 toString 等方法直接處理
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, Handler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "toString":
+                        return type.getSimpleName() + " stub";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        break;
+                }
+                Object value = handler.handle(method.getName(), args);
+                if (value == null && method.getReturnType().isPrimitive()) {
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == void.class) {
+                        return null;
+                    }
+                    if (returnType == long.class) {
+                        return 0L;
+                    }
+                    if (returnType == double.class) {
+                        return 0.0;
+                    }
+                    if (returnType == float.class) {
+                        return 0.0f;
+                    }
+                    return 0;
+                }
+                return value;
+            });
+        }
+
+        private interface Handler {
+            Object handle(String method, Object[] args) throws SQLException;
+        }
+    }
+}
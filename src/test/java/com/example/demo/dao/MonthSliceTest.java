@@ -0,0 +1,68 @@
+package com.example.demo.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonthSliceTest {
+
+    private static final ZoneId TAIPEI = ZoneId.of("Asia/Taipei");
+
+    private static Date at(int year, int month, int day, int hour) {
+        return Date.from(LocalDateTime.of(year, month, day, hour, 0).atZone(TAIPEI).toInstant());
+    }
+
+    @Test
+    public void splitsIntoEdgeAndFullMonths() {
+        List<MonthSlice> slices = MonthSlice.split(at(2026, 1, 15, 0), at(2026, 3, 10, 0), TAIPEI);
+
+        assertEquals(3, slices.size());
+
+        // 頭：1/15 ~ 2/1，只涵蓋部分月份
+        assertEquals(YearMonth.of(2026, 1), slices.get(0).getMonth());
+        assertEquals(at(2026, 1, 15, 0), slices.get(0).getStart());
+        assertEquals(at(2026, 2, 1, 0), slices.get(0).getEnd());
+        assertFalse(slices.get(0).isFullMonth());
+
+        // 中間：整個二月
+        assertEquals(YearMonth.of(2026, 2), slices.get(1).getMonth());
+        assertTrue(slices.get(1).isFullMonth());
+
+        // 尾：3/1 ~ 3/10
+        assertEquals(YearMonth.of(2026, 3), slices.get(2).getMonth());
+        assertEquals(at(2026, 3, 1, 0), slices.get(2).getStart());
+        assertEquals(at(2026, 3, 10, 0), slices.get(2).getEnd());
+        assertFalse(slices.get(2).isFullMonth());
+    }
+
+    @Test
+    public void exactMonthIsOneFullSlice() {
+        // to 不包含，所以 [10/1, 11/1) 只有十月一段
+        List<MonthSlice> slices = MonthSlice.split(at(2026, 10, 1, 0), at(2026, 11, 1, 0), TAIPEI);
+
+        assertEquals(1, slices.size());
+        assertEquals(YearMonth.of(2026, 10), slices.get(0).getMonth());
+        assertTrue(slices.get(0).isFullMonth());
+    }
+
+    @Test
+    public void emptyRange() {
+        assertTrue(MonthSlice.split(at(2026, 10, 1, 0), at(2026, 10, 1, 0), TAIPEI).isEmpty());
+        assertTrue(MonthSlice.split(at(2026, 11, 1, 0), at(2026, 10, 1, 0), TAIPEI).isEmpty());
+    }
+
+    @Test
+    public void monthBoundaryUsesGivenZone() {
+        // 台北 11/1 00:30 在 UTC 還是 10/31，月份要以指定的時區為準
+        Date justAfterMidnight = Date.from(LocalDateTime.of(2026, 11, 1, 0, 30).atZone(TAIPEI).toInstant());
+
+        assertEquals(YearMonth.of(2026, 11), MonthSlice.toMonth(justAfterMidnight, TAIPEI));
+        assertEquals(YearMonth.of(2026, 10), MonthSlice.toMonth(justAfterMidnight, ZoneId.of("UTC")));
+    }
+}
@@ -4,8 +4,20 @@ import com.example.demo.model.Student;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -14,6 +26,12 @@ public class StudentDaoImplTest {
     @Autowired
     private StudentDao studentDao;
 
+    @Autowired
+    private StudentArchiveDao studentArchiveDao;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
     @Test
     public void getById() {
         Student student = studentDao.getById(1);
@@ -75,6 +93,141 @@ public class StudentDaoImplTest {
         assertEquals("John", result.getName());
     }
 
+    @Test
+    @Transactional  // 封存與後續操作都會在測試結束後回滾
+    public void archivedStudentIsStillReadable() {
+
+        // 截止時間設在未來，id 最小的畢業生（id = 1 的 Amy）會是第一批被封存的資料
+        int moved = studentArchiveDao.archiveBatch(new Date(System.currentTimeMillis() + 86400000L), 1);
+        assertEquals(1, moved);
+
+        // 已經搬到封存表
+        assertNotNull(studentArchiveDao.getById(1));
+
+        // getById 在主表查不到時，要從封存表找到
+        Student student = studentDao.getById(1);
+        assertNotNull(student);
+        assertEquals("Amy", student.getName());
+        assertTrue(student.isGraduate());
+    }
+
+    @Test
+    @Transactional
+    public void updateArchivedStudent() {
+        studentArchiveDao.archiveBatch(new Date(System.currentTimeMillis() + 86400000L), 1);
+
+        // 主表沒有這筆資料，update 要改到封存表裡的那一筆
+        Student student = studentDao.getById(1);
+        student.setName("John");
+        studentDao.update(student);
+
+        Student result = studentDao.getById(1);
+        assertNotNull(result);
+        assertEquals("John", result.getName());
+    }
+
+    @Test
+    @Transactional
+    public void deleteArchivedStudent() {
+        studentArchiveDao.archiveBatch(new Date(System.currentTimeMillis() + 86400000L), 1);
 
+        // 刪除後，主表與封存表都不能再查到
+        studentDao.deleteById(1);
 
-}
\ No newline at end of file
+        assertNull(studentDao.getById(1));
+        assertNull(studentArchiveDao.getById(1));
+    }
+
+    @Test
+    @Transactional
+    public void getByCreateDateRangeAcrossPages() {
+
+        // 5 筆 create_date 完全相同，再加 1 筆較晚的，放在其他資料都不會落到的 2099 年
+        Date same = at(2099, 1, 10);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(insertAt("same" + i, same));
+        }
+        expected.add(insertAt("later", at(2099, 1, 20)));
+
+        Date from = at(2099, 1, 1);
+        Date to = at(2099, 2, 1);
+
+        // 每頁 2 筆，用上一頁最後一筆的 (create_date, id) 接續往下翻
+        // 同一個 create_date 跨越頁面時，不能重複也不能漏掉
+        List<Integer> ids = new ArrayList<>();
+        Date afterCreateDate = null;
+        Integer afterId = null;
+        for (int page = 0; page < 10; page++) {
+            List<Student> students = studentDao.getByCreateDateRange(from, to, afterCreateDate, afterId, 2);
+            for (Student student : students) {
+                ids.add(student.getId());
+            }
+            if (students.size() < 2) {
+                break;
+            }
+            Student last = students.get(students.size() - 1);
+            afterCreateDate = last.getCreateDate();
+            afterId = last.getId();
+        }
+
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    @Transactional  // 交易中不會使用已結束月份的快取，查到的一定是目前的資料
+    public void countByCreateDateRangeFullAndPartialMonths() {
+
+        // 2001/3 整個月（已結束的月份）有 2 筆，2001/4 有 1 筆在範圍內、1 筆在範圍外
+        insertAt("march1", at(2001, 3, 1));
+        insertAt("march2", at(2001, 3, 31));
+        insertAt("april1", at(2001, 4, 14));
+        insertAt("april2", at(2001, 4, 15));
+
+        // [3/1, 4/15)：三月整月 + 四月前半
+        assertEquals(3, studentDao.countByCreateDateRange(at(2001, 3, 1), at(2001, 4, 15)));
+
+        // 只有頭尾兩段部分月份：[3/31, 4/15)
+        assertEquals(2, studentDao.countByCreateDateRange(at(2001, 3, 31), at(2001, 4, 15)));
+
+        // 範圍是空的
+        assertEquals(0, studentDao.countByCreateDateRange(at(2001, 4, 15), at(2001, 3, 1)));
+    }
+
+    @Test
+    @Transactional
+    public void countByCreateDateRangeFutureMonths() {
+
+        // 下個月以後的範圍合成一次查詢，資料還是要算到
+        insertAt("future1", at(2099, 1, 10));
+        insertAt("future2", at(2099, 6, 10));
+
+        assertEquals(2, studentDao.countByCreateDateRange(at(2099, 1, 1), at(2099, 12, 1)));
+        assertEquals(1, studentDao.countByCreateDateRange(at(2099, 2, 1), at(2099, 12, 1)));
+    }
+
+    @Test
+    public void countByCreateDateRangeRejectsTooManyMonths() {
+
+        // 預設最多 120 個月
+        assertThrows(IllegalArgumentException.class,
+                () -> studentDao.countByCreateDateRange(at(1, 1, 1), at(9999, 12, 31)));
+    }
+
+    // 以 student.time-zone（Asia/Taipei）的日期建立時間點
+    private Date at(int year, int month, int day) {
+        return Date.from(LocalDateTime.of(year, month, day, 0, 0).atZone(ZoneId.of("Asia/Taipei")).toInstant());
+    }
+
+    // 直接寫入指定 create_date 的學生，回傳自動產生的 id
+    private Integer insertAt(String name, Date createDate) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", name);
+        map.put("createDate", createDate);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        namedParameterJdbcTemplate.update("INSERT INTO student(name, score, graduate, create_date) " +
+                "VALUES (:name, 60.0, false, :createDate)", new MapSqlParameterSource(map), keyHolder);
+        return keyHolder.getKey().intValue();
+    }
+}
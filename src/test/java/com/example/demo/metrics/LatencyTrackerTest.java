@@ -0,0 +1,69 @@
+package com.example.demo.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyTrackerTest {
+
+    @Test
+    public void emptyReturnsMinusOne() {
+        LatencyTracker tracker = new LatencyTracker(16, 4);
+        assertEquals(-1, tracker.percentile(0.95));
+    }
+
+    @Test
+    public void percentileUsesCeilIndex() {
+        LatencyTracker tracker = new LatencyTracker(128, 1);
+        for (int i = 100; i >= 1; i--) {
+            tracker.record(i);
+        }
+
+        // 第 ceil(p × n) 小的樣本
+        assertEquals(95, tracker.percentile(0.95));
+        assertEquals(50, tracker.percentile(0.5));
+        assertEquals(51, tracker.percentile(0.501));
+        assertEquals(100, tracker.percentile(1.0));
+        assertEquals(1, tracker.percentile(0.0));
+    }
+
+    @Test
+    public void recomputesOnlyEveryNRecords() {
+        LatencyTracker tracker = new LatencyTracker(16, 4);
+        tracker.record(10);
+        assertEquals(10, tracker.percentile(1.0));
+
+        // 累積不到 4 筆，仍然回傳上一次計算的結果
+        tracker.record(100);
+        tracker.record(100);
+        tracker.record(100);
+        assertEquals(10, tracker.percentile(1.0));
+
+        // 第 4 筆之後才重新計算
+        tracker.record(100);
+        assertEquals(100, tracker.percentile(1.0));
+    }
+
+    @Test
+    public void changingPercentileRecomputes() {
+        LatencyTracker tracker = new LatencyTracker(16, 100);
+        tracker.record(10);
+        tracker.record(20);
+        assertEquals(20, tracker.percentile(1.0));
+
+        // 換了百分位數就不能沿用上一次的結果
+        assertEquals(10, tracker.percentile(0.5));
+    }
+
+    @Test
+    public void keepsOnlyRecentSamples() {
+        LatencyTracker tracker = new LatencyTracker(3, 1);
+        tracker.record(1000);
+        tracker.record(1);
+        tracker.record(2);
+        tracker.record(3);
+
+        // 容量只有 3，最舊的 1000 已經被覆蓋
+        assertEquals(3, tracker.percentile(1.0));
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.metrics;
+
+import com.example.demo.model.HotKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpaceSavingSketchTest {
+
+    @Test
+    public void findsHeavyHitters() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(8);
+
+        // id 1、2 是熱點，其他 id 都只出現一次
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer(1);
+            if (i % 2 == 0) {
+                sketch.offer(2);
+            }
+            sketch.offer(100 + i);
+        }
+
+        List<SpaceSavingSketch.Counter> counters = sketch.counters();
+        assertEquals(8, counters.size());  // 計數器數量不會超過 capacity
+
+        counters.sort(Comparator.comparingLong(SpaceSavingSketch.Counter::getCount).reversed());
+        assertEquals(1, counters.get(0).getKey());
+        assertEquals(2, counters.get(1).getKey());
+
+        // 真實次數一定介於 count - error 與 count 之間
+        assertTrue(counters.get(0).getCount() - counters.get(0).getError() <= 1000);
+        assertTrue(counters.get(0).getCount() >= 1000);
+    }
+
+    @Test
+    public void windowDropsExpiredBuckets() {
+        HotKeyWindow window = new HotKeyWindow(8, 1000, 5, 1);
+
+        window.record(1, 0);
+        window.record(1, 500);
+        window.record(2, 4500);
+
+        List<HotKey> all = window.top(10, 5000, 4500);
+        assertEquals(1, all.get(0).getId());
+        assertEquals(2, all.get(0).getCount());
+
+        // 只看最近 1 秒，id 1 已經不在視窗內
+        // 目前的桶只經過 0.5 秒，1 次 / 0.5 秒 = 每秒 2 次
+        List<HotKey> recent = window.top(10, 1000, 4500);
+        assertEquals(1, recent.size());
+        assertEquals(2, recent.get(0).getId());
+        assertEquals(2.0, recent.get(0).getRatePerSecond());
+
+        // 時間往前推到環狀陣列繞回同一格，舊的桶要被清掉
+        window.record(3, 5000);
+        List<HotKey> later = window.top(10, 5000, 5000);
+        assertTrue(later.stream().noneMatch(k -> k.getId() == 1));
+    }
+
+    @Test
+    public void mergeAddsMinCountOfBucketsMissingTheKey() {
+        HotKeyWindow window = new HotKeyWindow(2, 1000, 2, 1);
+
+        // 第一桶：id 1 出現 3 次，之後 id 2、3 讓桶滿並把 id 2 擠掉，最小計數變成 2
+        window.record(1, 0);
+        window.record(1, 0);
+        window.record(1, 0);
+        window.record(2, 0);
+        window.record(3, 0);
+
+        // 第二桶：只有 id 2 出現 5 次（桶沒滿）
+        for (int i = 0; i < 5; i++) {
+            window.record(2, 1000);
+        }
+
+        List<HotKey> top = window.top(10, 2000, 1000);
+        HotKey key2 = top.stream().filter(k -> k.getId() == 2).findFirst().get();
+
+        // id 2 在第一桶沒有計數器，但真實上出現過 1 次，上限要加上第一桶的最小計數 2
+        assertEquals(7, key2.getCount());
+        assertEquals(2, key2.getError());
+        assertTrue(key2.getCount() - key2.getError() <= 6);
+        assertTrue(key2.getCount() >= 6);
+
+        // id 1 在第二桶沒有計數器，但第二桶沒滿，代表真的沒出現過
+        HotKey key1 = top.stream().filter(k -> k.getId() == 1).findFirst().get();
+        assertEquals(3, key1.getCount());
+        assertEquals(0, key1.getError());
+    }
+
+    @Test
+    public void evictsTheSmallestCounter() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+        sketch.offer(1, 5);
+        sketch.offer(2, 3);
+        sketch.offer(3, 1);
+
+        // 已滿，id 4 取代次數最小的 id 3
+        sketch.offer(4);
+        assertEquals(2, sketch.minCount());
+
+        // 再來的 id 5 取代目前最小的 id 4（次數 2）
+        sketch.offer(5);
+        assertEquals(3, sketch.minCount());
+
+        List<Integer> keys = new ArrayList<>();
+        for (SpaceSavingSketch.Counter c : sketch.counters()) {
+            keys.add(c.getKey());
+            if (c.getKey() == 5) {
+                assertEquals(3, c.getCount());
+                assertEquals(2, c.getError());
+            }
+        }
+        keys.sort(Comparator.naturalOrder());
+        assertEquals(List.of(1, 2, 5), keys);
+    }
+
+    @Test
+    public void windowSlidesBucketByBucket() {
+        HotKeyWindow window = new HotKeyWindow(8, 1000, 10, 1);
+        window.record(1, 2500);
+
+        // 3 秒的視窗在 3100 時涵蓋 1000 ~ 3100，共 2.1 秒
+        List<HotKey> top = window.top(10, 3000, 3100);
+        assertEquals(1, top.get(0).getCount());
+        assertEquals(1 / 2.1, top.get(0).getRatePerSecond(), 1e-9);
+
+        // 視窗往前滑一格，2000 ~ 3000 的桶仍然在視窗內
+        assertEquals(1, window.top(10, 3000, 4100).size());
+
+        // 再滑一格就離開視窗
+        assertTrue(window.top(10, 3000, 5000).isEmpty());
+    }
+
+    @Test
+    public void mergesStripesFromDifferentThreads() throws InterruptedException {
+        HotKeyWindow window = new HotKeyWindow(8, 1000, 5, 4);
+
+        // 多條執行緒各自記錄到不同的 stripe，查詢時要全部合併
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    window.record(7, 500);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<HotKey> top = window.top(10, 1000, 500);
+        assertEquals(7, top.get(0).getId());
+        assertEquals(400, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+    }
+}
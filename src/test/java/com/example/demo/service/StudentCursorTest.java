@@ -0,0 +1,36 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StudentCursorTest {
+
+    @Test
+    public void roundTrip() {
+        Student student = new Student();
+        student.setId(42);
+        student.setCreateDate(new Date(1700000000000L));
+
+        String cursor = StudentCursor.encode(student);
+        assertEquals("1700000000000_42", cursor);
+
+        StudentCursor decoded = StudentCursor.decode(cursor);
+        assertEquals(new Date(1700000000000L), decoded.getCreateDate());
+        assertEquals(42, decoded.getId());
+    }
+
+    @Test
+    public void rejectsMalformedCursor() {
+        // 格式錯誤都要是 IllegalArgumentException，Controller 才會回 400
+        assertThrows(IllegalArgumentException.class, () -> StudentCursor.decode("abc"));
+        assertThrows(IllegalArgumentException.class, () -> StudentCursor.decode("1700000000000"));
+        assertThrows(IllegalArgumentException.class, () -> StudentCursor.decode("1700000000000_"));
+        assertThrows(IllegalArgumentException.class, () -> StudentCursor.decode("1_2_3"));
+        assertThrows(IllegalArgumentException.class, () -> StudentCursor.decode("x_42"));
+        assertThrows(IllegalArgumentException.class, () -> StudentCursor.decode("1700000000000_y"));
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo.warmup;
+
+import com.example.demo.dao.StudentDao;
+import com.example.demo.model.Student;
+import com.example.demo.model.WarmupReport;
+import com.example.demo.model.WarmupStage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarmupRunnerTest {
+
+    private WarmupRunner runner;
+
+    // 假的連線池：記錄借出與歸還的連線數，第 failAt 條連線借出時拋出例外（-1 代表不會失敗）
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+    private int failAt = -1;
+
+    @BeforeEach
+    public void setUp() {
+        runner = new WarmupRunner();
+        ReflectionTestUtils.setField(runner, "dataSource", dataSource());
+        ReflectionTestUtils.setField(runner, "studentDao", studentDao());
+        ReflectionTestUtils.setField(runner, "environment", new MockEnvironment());
+        ReflectionTestUtils.setField(runner, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(runner, "enabled", true);
+        ReflectionTestUtils.setField(runner, "studentIds", new int[]{1});
+        ReflectionTestUtils.setField(runner, "iterations", 10);
+        ReflectionTestUtils.setField(runner, "stageBudgetMs", 5000L);
+        ReflectionTestUtils.setField(runner, "totalBudgetMs", 20000L);
+        ReflectionTestUtils.setField(runner, "poolConnections", 3);
+    }
+
+    @Test
+    public void runStageStopsAtIterations() {
+        AtomicInteger calls = new AtomicInteger();
+
+        WarmupStage stage = runner.runStage("test", farDeadline(), i -> calls.incrementAndGet());
+
+        assertEquals("test", stage.getName());
+        assertEquals(10, stage.getIterations());
+        assertEquals(10, calls.get());
+        assertFalse(stage.isBudgetExhausted());
+        assertNull(stage.getError());
+    }
+
+    @Test
+    public void runStageStopsAtStageBudget() {
+        ReflectionTestUtils.setField(runner, "iterations", 1000);
+        ReflectionTestUtils.setField(runner, "stageBudgetMs", 50L);
+
+        // 每次 20ms，50ms 的預算只夠跑幾次
+        WarmupStage stage = runner.runStage("slow", farDeadline(), i -> Thread.sleep(20));
+
+        assertTrue(stage.isBudgetExhausted());
+        assertTrue(stage.getIterations() > 0 && stage.getIterations() < 10);
+    }
+
+    @Test
+    public void runStageStopsAtTotalDeadline() {
+
+        // 整體期限已經過了，一次都不會執行
+        WarmupStage stage = runner.runStage("late", System.nanoTime() - 1, i -> fail("should not run"));
+
+        assertTrue(stage.isBudgetExhausted());
+        assertEquals(0, stage.getIterations());
+    }
+
+    @Test
+    public void runStageStopsAtFirstError() {
+        WarmupStage stage = runner.runStage("broken", farDeadline(), i -> {
+            if (i == 2) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertEquals(2, stage.getIterations());
+        assertTrue(stage.getError().contains("boom"));
+        assertFalse(stage.isBudgetExhausted());
+    }
+
+    @Test
+    public void warmPoolOpensAndReturnsConnections() {
+        WarmupStage stage = runner.warmPool(farDeadline());
+
+        assertEquals("pool", stage.getName());
+        assertEquals(3, stage.getIterations());
+        assertEquals(3, opened.get());
+        assertEquals(3, closed.get());
+        assertNull(stage.getError());
+    }
+
+    @Test
+    public void warmPoolReturnsConnectionsOnError() {
+        failAt = 2;
+
+        WarmupStage stage = runner.warmPool(farDeadline());
+
+        // 前兩條連線已借出，失敗後仍然要全部歸還
+        assertEquals(2, stage.getIterations());
+        assertEquals(2, closed.get());
+        assertNotNull(stage.getError());
+    }
+
+    @Test
+    public void warmPoolStopsAtDeadline() {
+        WarmupStage stage = runner.warmPool(System.nanoTime() - 1);
+
+        assertTrue(stage.isBudgetExhausted());
+        assertEquals(0, stage.getIterations());
+        assertEquals(0, opened.get());
+    }
+
+    @Test
+    public void runReportsEveryStage() {
+        runner.run(null);
+
+        WarmupReport report = runner.getReport();
+        assertTrue(report.isCompleted());
+
+        List<String> names = new ArrayList<>();
+        for (WarmupStage stage : report.getStages()) {
+            names.add(stage.getName());
+        }
+        assertEquals(List.of("pool", "dao", "http", "jackson"), names);
+
+        assertEquals(3, report.getStages().get(0).getIterations());
+        assertEquals(10, report.getStages().get(1).getIterations());
+
+        // 沒有啟動 web server，HTTP 階段記錄原因後略過，不影響其他階段
+        assertEquals(0, report.getStages().get(2).getIterations());
+        assertNotNull(report.getStages().get(2).getError());
+
+        assertEquals(10, report.getStages().get(3).getIterations());
+        assertNull(report.getStages().get(3).getError());
+    }
+
+    @Test
+    public void disabledRunDoesNothing() {
+        ReflectionTestUtils.setField(runner, "enabled", false);
+
+        runner.run(null);
+
+        assertFalse(runner.getReport().isCompleted());
+        assertEquals(0, opened.get());
+    }
+
+    private long farDeadline() {
+        return System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+    }
+
+    private DataSource dataSource() {
+        return stub(DataSource.class, (method, args) -> {
+            if (!method.equals("getConnection")) {
+                throw new UnsupportedOperationException(method);
+            }
+            if (opened.get() == failAt) {
+                throw new SQLException("pool exhausted");
+            }
+            opened.incrementAndGet();
+            return connection();
+        });
+    }
+
+    private Connection connection() {
+        return stub(Connection.class, (method, args) -> {
+            if (method.equals("close")) {
+                closed.incrementAndGet();
+                return null;
+            }
+            if (method.equals("isValid")) {
+                return true;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private StudentDao studentDao() {
+        return stub(StudentDao.class, (method, args) -> {
+            if (!method.equals("getById")) {
+                throw new UnsupportedOperationException(method);
+            }
+            Student student = new Student();
+            student.setId((Integer) args[0]);
+            student.setName("Amy");
+            student.setScore(90.3);
+            student.setGraduate(true);
+            student.setCreateDate(new Date());
+            return student;
+        });
+    }
+
+    // 用動態代理建立介面的假實作，Object 的 toString 等方法直接處理，不交給 handler
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return handler.handle(method.getName(), args);
+            }
+        });
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args) throws SQLException;
+    }
+}